@@ -0,0 +1,239 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.bench;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.engine.EngineRegistry;
+import com.deepak.blobextractor.streaming.BlobListener;
+import com.deepak.blobextractor.streaming.RowSource;
+import com.deepak.blobextractor.workload.WorkloadGenerator;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the JMH benchmark of the blob extractors
+ *
+ * every extractor (engine) which labels in one or two passes is run on every
+ * synthetic workload at every image size, so their scaling with the image
+ * size shows, and the no of images extracted per second is reported. the
+ * workload images are made by the workload generator from a fixed seed
+ *  - specks       : isolated specks of 1 to 3 pixels, about 1% of the image
+ *  - noise        : every pixel black with a probability of 1/2
+ *  - spiral       : a single 1 pixel wide square spiral, the worst case for
+ *                   the no of passes of the kernel based extractors
+ *  - serpentine   : a single line going back and forth across the image
+ *  - comb         : combs whose teeth are merged only by their bottom rows,
+ *                   the worst case for the label merges
+ *  - checkerboard : a single blob joined only diagonally
+ *  - blob         : a single filled disc covering most of the image
+ *  - text         : lines of small glyph like blobs on a white page
+ * run it by "ant bench" (see build.xml), which adds the gc profiler for the
+ * allocation rate; a subset is picked by the JMH options, like
+ *
+ *   ant bench -Dbench.args="-p engine=level2,runlength -p size=1024,4096 -prof gc"
+ *
+ * the auto engine picks the engine of every image by the engine registry,
+ * so it measures the cost of sampling the image too
+ *
+ * the kernel based extractors (getrgb, arrayprocessing, level1) need a pass
+ * over the whole image per step of the longest blob path, so they can not
+ * finish the spiral and serpentine workloads at these sizes. they are run at
+ * smaller sizes by the kernel extractor benchmark
+ *
+ * the progress messages printed by the extractors are dropped while the
+ * benchmark runs, so only the extraction itself is measured
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractorBenchmark {
+
+    // the extractor
+    @Param({"level2", "level2parallel", "runlength", "streaming", "auto"})
+    public String engine;
+    // the workload
+    @Param({"specks", "noise", "spiral", "serpentine", "comb", "checkerboard", "blob", "text"})
+    public String workload;
+    // the image width and height
+    @Param({"128", "512", "2048"})
+    public int size;
+    // the seed of the workload images
+    private static final long SEED = 20140101L;
+    // the workload image
+    private BufferedImage image = null;
+    // the packed rows of the workload image with a set bit for a blob pixel
+    // for the streaming extractor
+    private byte rows[][] = null;
+    // the extractors which can be reused for every image
+    private com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor level2 = null;
+    private com.deepak.blobextractor.runlength.BlobExtractor runLength = null;
+    private com.deepak.blobextractor.streaming.BlobExtractor streaming = null;
+    private ImageBlobExtractor auto = null;
+    // the no of blobs given by the streaming extractor
+    private int streamedBlobCount = 0;
+    // the standard output, kept while the progress messages are dropped
+    private PrintStream standardOutput = null;
+
+    /*
+     * method to create the workload image and the extractor
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        WorkloadGenerator generator = createWorkload(workload, size);
+        image = generator.createImage();
+        // the same image as rows for the streaming extractor
+        RowSource rowSource = generator.openRows();
+        rows = new byte[size][(size + 7) / 8];
+        for (int y = 0; y < size; y++) {
+            rowSource.readRow(rows[y]);
+        }
+        level2 = new com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor();
+        if (engine.equals("level2parallel")) {
+            level2.setParallelism(Runtime.getRuntime().availableProcessors());
+        }
+        runLength = new com.deepak.blobextractor.runlength.BlobExtractor();
+        auto = new EngineRegistry().createExtractor(EngineRegistry.AUTO);
+        streaming = new com.deepak.blobextractor.streaming.BlobExtractor(new BlobListener() {
+
+            public void blobExtracted(Blob blob) {
+                streamedBlobCount++;
+            }
+        });
+        // drop the progress messages of the extractors
+        standardOutput = dropOutput();
+    }
+
+    /*
+     * method to get the generator of a workload image of the specified size
+     */
+    static WorkloadGenerator createWorkload(String workload, int size) {
+        WorkloadGenerator generator = null;
+        if (workload.equals("specks")) {
+            generator = new WorkloadGenerator(WorkloadGenerator.BLOBS, size, size, SEED);
+            generator.setDensity(0.01);
+            generator.setBlobSizeRange(1, 3);
+        } else if (workload.equals("noise")) {
+            generator = new WorkloadGenerator(WorkloadGenerator.NOISE, size, size, SEED);
+            generator.setDensity(0.5);
+        } else if (workload.equals("blob")) {
+            // a single disc is enough for the density
+            generator = new WorkloadGenerator(WorkloadGenerator.BLOBS, size, size, SEED);
+            generator.setDensity(0.6);
+            generator.setBlobSizeRange(size * 9 / 10, size * 9 / 10);
+        } else {
+            generator = new WorkloadGenerator(WorkloadGenerator.getPattern(workload), size, size, SEED);
+        }
+        return generator;
+    }
+
+    /*
+     * method to restore the standard output and release the extractors
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(standardOutput);
+        level2.setParallelism(1);
+        level2.close();
+    }
+
+    /*
+     * method to extract the blobs of the workload image
+     *
+     * returns the no of blobs, which is consumed by JMH so the work can not
+     * be optimized away
+     */
+    @Benchmark
+    public int extract() {
+        if (engine.equals("level2") || engine.equals("level2parallel")) {
+            return count(level2.extractBlobs(image));
+        } else if (engine.equals("runlength")) {
+            return count(runLength.extractBlobs(image));
+        } else if (engine.equals("auto")) {
+            return count(auto.extractBlobs(image));
+        } else if (engine.equals("streaming")) {
+            streamedBlobCount = 0;
+            streaming.start(size);
+            for (int y = 0; y < size; y++) {
+                streaming.addRow(rows[y]);
+            }
+            streaming.finish();
+            return streamedBlobCount;
+        }
+        throw new IllegalArgumentException("unknown engine " + engine);
+    }
+
+    /*
+     * method to drop everything printed to the standard output
+     *
+     * returns the standard output, to be restored once the benchmark is done
+     */
+    static PrintStream dropOutput() {
+        PrintStream standardOutput = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte b[], int off, int len) {
+            }
+        }));
+        return standardOutput;
+    }
+
+    /*
+     * method to get the no of blob images extracted
+     */
+    static int count(List<BufferedImage> blobs) {
+        return blobs != null ? blobs.size() : 0;
+    }
+}
@@ -0,0 +1,122 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.bench;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the JMH benchmark of the kernel based blob extractors
+ *
+ * the getrgb, arrayprocessing and level1 extractors pass over the whole
+ * image once per step of the longest blob path, so a spiral or serpentine
+ * of n x n pixels takes about n^4 pixel visits. they are run on the same
+ * workloads as by the extractor benchmark, at the smaller sizes they can
+ * finish, so their scaling can be set against the other extractors at 128
+ *
+ * the two benchmarks are run on their own by the JMH options, like
+ *
+ *   ant bench -Dbench.args="KernelExtractorBenchmark -prof gc"
+ *   ant bench -Dbench.args="\.ExtractorBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KernelExtractorBenchmark {
+
+    // the extractor
+    @Param({"getrgb", "arrayprocessing", "level1"})
+    public String engine;
+    // the workload
+    @Param({"specks", "noise", "spiral", "serpentine", "comb", "checkerboard", "blob", "text"})
+    public String workload;
+    // the image width and height
+    @Param({"32", "64", "128"})
+    public int size;
+    // the workload image
+    private BufferedImage image = null;
+    // the standard output, kept while the progress messages are dropped
+    private PrintStream standardOutput = null;
+
+    /*
+     * method to create the workload image
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        image = ExtractorBenchmark.createWorkload(workload, size).createImage();
+        // drop the pass counts printed by the extractors
+        standardOutput = ExtractorBenchmark.dropOutput();
+    }
+
+    /*
+     * method to restore the standard output
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(standardOutput);
+    }
+
+    /*
+     * method to extract the blobs of the workload image
+     *
+     * returns the no of blobs, which is consumed by JMH so the work can not
+     * be optimized away. the extractors keep the state of an image, so a new
+     * one is created for every image
+     */
+    @Benchmark
+    public int extract() {
+        if (engine.equals("getrgb")) {
+            return ExtractorBenchmark.count(new com.deepak.blobextractor.BlobExtractor().extractBlobs(image));
+        } else if (engine.equals("arrayprocessing")) {
+            return ExtractorBenchmark.count(new com.deepak.blobextractor.arrayprocessing.BlobExtractor().extractBlobs(image));
+        } else if (engine.equals("level1")) {
+            return ExtractorBenchmark.count(new com.deepak.blobextractor.arrayprocessing.optimized.level1.BlobExtractor().extractBlobs(image));
+        }
+        throw new IllegalArgumentException("unknown engine " + engine);
+    }
+}
@@ -0,0 +1,77 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the flight recorder event of a blob extraction
+ *
+ * the event lasts from the start to the end of the extraction and tells the
+ * input (resolution and foreground density) and the labeling cost (passes,
+ * kernel pixels and merges) of it, so the slow extractions of a continuous
+ * recording can be tied to the images which caused them
+ */
+@Name("com.deepak.blobextractor.Extraction")
+@Label("Blob Extraction")
+@Category("Blob Extractor")
+@Description("The extraction of the blobs of an image")
+class ExtractionEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+    @Label("Width")
+    int width;
+    @Label("Height")
+    int height;
+    @Label("Foreground Pixels")
+    long foregroundCount;
+    @Label("Foreground Density")
+    @Percentage
+    double foregroundDensity;
+    @Label("Blob Count")
+    int blobCount;
+    @Label("Pass Count")
+    int passCount;
+    @Label("Core Processing Count")
+    @Description("The no of pixels processed by the labeling kernel")
+    long coreProcessingCount;
+    @Label("Merge Count")
+    long mergeCount;
+    @Label("Allocated")
+    @Description("The bytes allocated by the extracting thread, -1 if unknown")
+    @DataAmount
+    long allocatedBytes;
+}
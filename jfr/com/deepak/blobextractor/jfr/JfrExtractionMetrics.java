@@ -0,0 +1,199 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.jfr;
+
+import com.deepak.blobextractor.ExtractionMetrics;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the metrics receiver which emits java flight recorder events
+ *
+ * every extraction gives an extraction event and an event per phase, and the
+ * expensive label merges of the kernel based engines give a merge event.
+ * the events cost nothing more than the event objects while no recording is
+ * running, so the receiver can be left set in production. usage :
+ *
+ *   extractor.setMetrics(new JfrExtractionMetrics());
+ *
+ * and run with -XX:StartFlightRecording (or start a recording by jcmd). the
+ * events are in the Blob Extractor category of the recording
+ *
+ * the state of the extraction in progress is kept per thread, so a single
+ * instance can be shared by the extractors of all the threads
+ */
+public class JfrExtractionMetrics implements ExtractionMetrics {
+
+    // the names of the phases
+    private static final String PHASE_NAMES[] = {"copy", "recolor", "labeling", "label collection", "materialization"};
+    // the default minimum time of a merge to be recorded, 1 ms
+    public static final long DEFAULT_MERGE_THRESHOLD = 1000000;
+    // the state of the extraction in progress on every thread
+    private final ThreadLocal<Extraction> extraction = new ThreadLocal<Extraction>() {
+
+        protected Extraction initialValue() {
+            return new Extraction();
+        }
+    };
+    // the minimum time of a merge to be recorded in nano seconds
+    private volatile long mergeThreshold = DEFAULT_MERGE_THRESHOLD;
+    // every how many of the merges over the threshold one is recorded
+    private volatile int mergeSampleInterval = 1;
+
+    /*
+     * the state of the extraction in progress on a thread
+     */
+    private static class Extraction {
+
+        // the event of the extraction
+        ExtractionEvent event = null;
+        // the event of the phase in progress
+        PhaseEvent phase = null;
+        // the no of merges over the threshold met so far
+        long expensiveMergeCount = 0;
+    }
+
+    /*
+     * method to set the minimum time of a merge to be recorded in nano
+     * seconds, 0 for all the merges
+     */
+    public void setMergeThreshold(long mergeThreshold) {
+        if (mergeThreshold < 0) {
+            throw new IllegalArgumentException("merge threshold should not be negative");
+        }
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    /*
+     * method to get the minimum time of a merge to be recorded in nano seconds
+     */
+    public long getMergeThreshold() {
+        return mergeThreshold;
+    }
+
+    /*
+     * method to set every how many of the merges over the threshold one is
+     * recorded (1, the default, for all of them)
+     */
+    public void setMergeSampleInterval(int mergeSampleInterval) {
+        if (mergeSampleInterval < 1) {
+            throw new IllegalArgumentException("merge sample interval should be at least 1");
+        }
+        this.mergeSampleInterval = mergeSampleInterval;
+    }
+
+    /*
+     * method to get every how many of the merges over the threshold one is recorded
+     */
+    public int getMergeSampleInterval() {
+        return mergeSampleInterval;
+    }
+
+    public void extractionStarted(String engine, int width, int height) {
+        Extraction state = extraction.get();
+        state.event = new ExtractionEvent();
+        state.event.engine = engine;
+        state.event.width = width;
+        state.event.height = height;
+        state.expensiveMergeCount = 0;
+        state.event.begin();
+        state.phase = newPhase(state.event);
+    }
+
+    public void phaseCompleted(int phase, long nanos) {
+        Extraction state = extraction.get();
+        if (state.phase == null) {
+            return;
+        }
+        PhaseEvent event = state.phase;
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = PHASE_NAMES[phase];
+            event.commit();
+        }
+        // the next phase starts where this one ended
+        state.phase = newPhase(state.event);
+    }
+
+    public void labelingCompleted(int passCount, long coreProcessingCount, long mergeCount) {
+        ExtractionEvent event = extraction.get().event;
+        if (event != null) {
+            event.passCount = passCount;
+            event.coreProcessingCount = coreProcessingCount;
+            event.mergeCount = mergeCount;
+        }
+    }
+
+    public void labelsMerged(int oldLabel, int newLabel, long pixelCount, long nanos) {
+        Extraction state = extraction.get();
+        if (state.event == null || nanos < mergeThreshold
+                || state.expensiveMergeCount++ % mergeSampleInterval != 0) {
+            return;
+        }
+        MergeEvent event = new MergeEvent();
+        if (event.isEnabled()) {
+            event.engine = state.event.engine;
+            event.oldLabel = oldLabel;
+            event.newLabel = newLabel;
+            event.pixelCount = pixelCount;
+            event.mergeTime = nanos;
+            event.commit();
+        }
+    }
+
+    public void extractionCompleted(int blobCount, long foregroundCount, long allocatedBytes) {
+        Extraction state = extraction.get();
+        ExtractionEvent event = state.event;
+        state.event = null;
+        state.phase = null;
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            long pixelCount = (long) event.width * event.height;
+            event.blobCount = blobCount;
+            event.foregroundCount = foregroundCount;
+            event.foregroundDensity = pixelCount > 0 ? (double) foregroundCount / pixelCount : 0;
+            event.allocatedBytes = allocatedBytes;
+            event.commit();
+        }
+    }
+
+    /*
+     * method to create and start the event of the next phase of an extraction
+     */
+    private static PhaseEvent newPhase(ExtractionEvent extractionEvent) {
+        PhaseEvent event = new PhaseEvent();
+        event.engine = extractionEvent.engine;
+        event.width = extractionEvent.width;
+        event.height = extractionEvent.height;
+        event.begin();
+        return event;
+    }
+}
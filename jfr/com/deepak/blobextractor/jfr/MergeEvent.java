@@ -0,0 +1,63 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the flight recorder event of an expensive label merge
+ *
+ * a merge of the kernel based engines relabels the pixels of the old label
+ * in a scan of the whole image. the event is committed right after the merge
+ * with the time it took, and only for the merges sampled by the metrics
+ * receiver (see JfrExtractionMetrics)
+ */
+@Name("com.deepak.blobextractor.LabelMerge")
+@Label("Blob Label Merge")
+@Category("Blob Extractor")
+@Description("A label merge which relabeled the pixels of an image")
+class MergeEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+    @Label("Old Label")
+    int oldLabel;
+    @Label("New Label")
+    int newLabel;
+    @Label("Relabeled Pixels")
+    long pixelCount;
+    @Label("Merge Time")
+    @Timespan
+    long mergeTime;
+}
@@ -0,0 +1,57 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the flight recorder event of a phase of a blob extraction
+ *
+ * the phases are copy, recolor, labeling, label collection and
+ * materialization, an engine reports only the phases it has
+ */
+@Name("com.deepak.blobextractor.ExtractionPhase")
+@Label("Blob Extraction Phase")
+@Category("Blob Extractor")
+@Description("A phase of the extraction of the blobs of an image")
+class PhaseEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+    @Label("Phase")
+    String phase;
+    @Label("Width")
+    int width;
+    @Label("Height")
+    int height;
+}
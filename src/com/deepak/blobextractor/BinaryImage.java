@@ -0,0 +1,89 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of a binary view of an image, which tells the blob
+ * (foreground) pixels from the background pixels
+ *
+ * the labeling passes read the image only through this view, one row at a
+ * time from left to right, so a view can work out the blob pixels on the fly
+ * without any intermediate binary image
+ */
+public interface BinaryImage {
+
+    /*
+     * method to get the image width
+     */
+    int getWidth();
+
+    /*
+     * method to get the image height
+     */
+    int getHeight();
+
+    /*
+     * method to check whether the pixel at the specified position is a blob pixel
+     */
+    boolean isBlobPixel(int x, int y);
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * starting from x (inclusive)
+     *
+     * returns the image width if there is no more blob pixel in the row
+     */
+    int nextBlobPixel(int x, int y);
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * starting from x (inclusive), that is the end of the current run of blob pixels
+     *
+     * returns the image width if there is no more background pixel in the row
+     */
+    int nextBackgroundPixel(int x, int y);
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more blob pixel in the row before end,
+     * so only a part of the row is read for a region of the image
+     */
+    int nextBlobPixel(int x, int y, int end);
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more background pixel in the row before end
+     */
+    int nextBackgroundPixel(int x, int y, int end);
+}
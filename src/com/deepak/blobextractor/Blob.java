@@ -0,0 +1,235 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * a light weight handle of an extracted blob
+ *
+ * holds only the label, the bounding box and the pixel count of the blob;
+ * the blob pixels are drawn from the blob source (the labeled image, the runs
+ * of the blob etc) only when the blob image, the packed bitmap or the pixel
+ * cordinates are asked for. so the blobs which are not needed cost nothing
+ * more than the labeling
+ */
+public class Blob {
+
+    // the label of the blob
+    private int label = 0;
+    // the bounding box of the blob in the source image
+    private int x = 0;
+    private int y = 0;
+    private int width = 0;
+    private int height = 0;
+    // the pixel count of the blob
+    private long area = 0;
+    // the source of the blob pixels
+    private BlobSource source = null;
+
+    /*
+     * constructor which creates a blob handle
+     */
+    public Blob(int label, int x, int y, int width, int height, long area, BlobSource source) {
+        this.label = label;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.area = area;
+        this.source = source;
+    }
+
+    /*
+     * method to get the label of the blob
+     */
+    public int getLabel() {
+        return label;
+    }
+
+    /*
+     * method to get the left most x cordinate of the blob
+     */
+    public int getX() {
+        return x;
+    }
+
+    /*
+     * method to get the top most y cordinate of the blob
+     */
+    public int getY() {
+        return y;
+    }
+
+    /*
+     * method to get the width of the blob
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /*
+     * method to get the height of the blob
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /*
+     * method to get the bounding box of the blob
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(x, y, width, height);
+    }
+
+    /*
+     * method to get the pixel count of the blob
+     */
+    public long getArea() {
+        return area;
+    }
+
+    /*
+     * method to get the blob as a packed bitmap of its bounding box
+     *
+     * the bitmap has (width + 7) / 8 bytes per row with the left most pixel in
+     * the most significant bit and a set bit for a blob pixel
+     */
+    public byte[] getPackedBitmap() {
+        // the bitmap of a blob over about 2^34 pixels does not fit in a single byte array
+        long size = ((width + 7L) / 8) * height;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("blob of " + width + " x " + height + " pixels is too large for a packed bitmap");
+        }
+        byte bitmap[] = new byte[(int) size];
+        source.drawBlob(this, bitmap);
+        return bitmap;
+    }
+
+    /*
+     * method to get the blob image
+     *
+     * the blob image is a byte binary image of the blob size with the blob
+     * pixels in black and the rest in white
+     */
+    public BufferedImage getImage() {
+        // create image buffer for blob with the blob size
+        BufferedImage blob = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        byte b[] = ((DataBufferByte) blob.getRaster().getDataBuffer()).getData();
+        // draw the blob directly onto the image buffer
+        // as the image buffer has the same layout as the packed bitmap
+        source.drawBlob(this, b);
+        // the default palette of a byte binary image has black at 0 and white at 1
+        // so invert the bitmap to get black blob pixels on a white background
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) ~b[i];
+        }
+        // return the blob image
+        return blob;
+    }
+
+    /*
+     * method to get a copy of the blob handle which holds its own packed bitmap
+     *
+     * the blob pixels are drawn once, so the copy stays valid after the blob
+     * source is gone and is cheap to draw from any thread
+     */
+    public Blob materialize() {
+        return new Blob(label, x, y, width, height, area, new BitmapSource(getPackedBitmap()));
+    }
+
+    /*
+     * method to get the cordinates of the blob pixels in the source image
+     *
+     * returns an array of x, y pairs in the scanning order
+     */
+    public int[] getPixelCoordinates() {
+        // a blob of over 2^30 pixels does not fit in a single int array
+        if (area * 2 > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("blob of " + area + " pixels is too large for a coordinate array");
+        }
+        byte bitmap[] = getPackedBitmap();
+        int stride = (width + 7) / 8;
+        int coordinates[] = new int[(int) (area * 2)];
+        int i = 0;
+        for (int j = 0; j < height; j++) {
+            for (int k = 0; k < width; k++) {
+                if ((bitmap[j * stride + (k >> 3)] & (0x80 >> (k & 7))) != 0) {
+                    coordinates[i++] = x + k;
+                    coordinates[i++] = y + j;
+                }
+            }
+        }
+        return coordinates;
+    }
+
+    /*
+     * method to set the bits x1 to x2 (inclusive) of a row of a packed bitmap
+     *
+     * a helper for the blob sources drawing a blob from its runs
+     * the whole bytes inside the run are set at once
+     */
+    public static void fillRun(byte bitmap[], int rowOffset, int x1, int x2) {
+        int firstByte = x1 >> 3;
+        int lastByte = x2 >> 3;
+        // the bits of the first and the last byte of the run
+        int firstMask = 0xFF >> (x1 & 7);
+        int lastMask = 0xFF << (7 - (x2 & 7));
+        if (firstByte == lastByte) {
+            bitmap[rowOffset + firstByte] |= firstMask & lastMask;
+        } else {
+            bitmap[rowOffset + firstByte] |= firstMask;
+            for (int i = firstByte + 1; i < lastByte; i++) {
+                bitmap[rowOffset + i] = (byte) 0xFF;
+            }
+            bitmap[rowOffset + lastByte] |= lastMask;
+        }
+    }
+
+    /*
+     * the blob source of a materialized blob, which draws the blob from its
+     * own packed bitmap
+     */
+    private static class BitmapSource implements BlobSource {
+
+        // the packed bitmap of the blob
+        private byte bitmap[] = null;
+
+        BitmapSource(byte bitmap[]) {
+            this.bitmap = bitmap;
+        }
+
+        public void drawBlob(Blob blob, byte bitmap[]) {
+            System.arraycopy(this.bitmap, 0, bitmap, 0, this.bitmap.length);
+        }
+    }
+}
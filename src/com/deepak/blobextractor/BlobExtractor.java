@@ -40,7 +40,7 @@ import java.util.ArrayList;
  *
  * blob extraction based on labeling process using a 3x3 kernel
  */
-public class BlobExtractor {
+public class BlobExtractor implements ImageBlobExtractor {
 
     // the source image
     private BufferedImage sourceImage = null;
@@ -59,17 +59,31 @@ public class BlobExtractor {
     private int labelIndex = 2;
     // counter for core processing of the image pixel
     private int coreProcessingCount = 0;
+    // counter for the label merges (replaced labels) of the image
+    private int mergeCount = 0;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the budget of the current extraction, null if none
+    private ExtractionBudget budget = null;
+    // the no of pixels visited by the current extraction
+    private long visitedCount = 0;
+    // the timer of the phases of the current extraction
+    private ExtractionTimer timer = null;
+    // the no of blob pixels of the current image
+    private long foregroundCount = 0;
 
     /*
      * method to load new color values to the binary image
      */
     private void loadNewColorValues() {
+        foregroundCount = 0;
         // for all pixels in the image
         for (int y = 0; y < sourceImage.getHeight(); y++) {
             for (int x = 0; x < sourceImage.getWidth(); x++) {
                 // if old blob color found then replace it with new blob color
                 if (sourceImage.getRGB(x, y) == BLOBCOLOR) {
                     sourceImage.setRGB(x, y, BLACK);
+                    foregroundCount++;
                 } // else replace it with new background color
                 else {
                     sourceImage.setRGB(x, y, WHITE);
@@ -84,41 +98,74 @@ public class BlobExtractor {
      * detected blob images
      */
     public ArrayList<BufferedImage> extractBlobs(BufferedImage img) {
+        return extractBlobs(img, null);
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked after every row of every pass and after every
+     * label merge (a scan of the whole image), an ExtractionAbortedException
+     * is thrown when it is cancelled or runs out
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage img, ExtractionBudget budget) {
 
         // create a blob image list
         ArrayList<BufferedImage> blobList = null;
 
         // check whether the image is a valid image
         if (isValidImage(img)) {
+            // time the phases of the extraction
+            // the work done is checked against the budget
+            this.budget = budget;
+            visitedCount = 0;
+            mergeCount = 0;
+            timer = new ExtractionTimer(metrics, "getrgb", img.getWidth(), img.getHeight());
             // take the copy of the original image
             // the type is set to int argb insted of the original imags byte binary as
             // durying processing pixel rgb values are to be replaced by the label values
             this.sourceImage = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
             // draw the source image on to the created copy
             this.sourceImage.getGraphics().drawImage(img, 0, 0, null);
-            System.out.println("Image Copied.");
+            timer.phaseCompleted(ExtractionMetrics.COPY);
 
             // now load new color values for the source image
             loadNewColorValues();
-            System.out.println("New color values set.");
+            timer.phaseCompleted(ExtractionMetrics.RECOLOR);
+            checkBudget();
+
+            // the labels and the counter start afresh for every image
+            // so the extractor can be reused for the next image
+            labelIndex = 2;
+            coreProcessingCount = 0;
+            mergeCount = 0;
 
             // start labeling blobs
-            System.out.println("Labeling Started");
             // the no of pass counter
             int pass = 0;
             while (doLabeling()) {
                 pass++;
             }
-            System.out.println("Labeling Completed.");
-            System.out.println("Labeling Pass Count:" + pass);
-            System.out.println("Core processing count:" + coreProcessingCount);
+            timer.phaseCompleted(ExtractionMetrics.LABELING);
+            timer.labelingCompleted(pass, coreProcessingCount, mergeCount);
+
+            // get the labels of the blobs
+            ArrayList<Integer> labelList = getLabels();
+            timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
 
             // initialise the blob image array list
             blobList = new ArrayList<BufferedImage>();
             // for every labeled blob get the blob and load it onto the blobs list
-            for (Integer i : getLabels()) {
+            for (Integer i : labelList) {
                 blobList.add(getBlob(i));
+                // every blob is found by scanning the image
+                visitedCount += (long) sourceImage.getWidth() * sourceImage.getHeight();
+                checkBudget();
             }
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), foregroundCount);
         }
         // return the blob list
         return blobList;
@@ -142,11 +189,35 @@ public class BlobExtractor {
                 }
             }
         }
-        System.out.println("Label List Size: " + labelList.size());
         // return the label list
         return labelList;
     }
 
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to check the budget of the current extraction, if any, with the
+     * work done so far
+     */
+    private void checkBudget() {
+        if (budget != null) {
+            budget.check(visitedCount, mergeCount);
+        }
+    }
+
     /*
      * method to check whether the inputed image is a valid image or not
      */
@@ -164,7 +235,6 @@ public class BlobExtractor {
             System.out.println("Error : Invalid Image! image should be binary image.");
             return false;
         }
-        System.out.println("Valid Image Input.");
         // if all the abouve conditions are satisfied then it is a valid image for blob extraction
         return true;
     }
@@ -220,12 +290,6 @@ public class BlobExtractor {
         // and if it is a vertical line then the width becomes zero
         w = w < 1 ? 1 : w;
         h = h < 1 ? 1 : h;
-
-        System.out.println("Blob Label :" + blobLabel);
-        System.out.println("x: " + x1);
-        System.out.println("y: " + y1);
-        System.out.println("w: " + w);
-        System.out.println("h: " + h);
         // return the blobs size (resolution)
         return new Rectangle(x1, y1, w, h);
     }
@@ -248,8 +312,6 @@ public class BlobExtractor {
         // get the blob sub image from the original image
         BufferedImage subSourceImage = sourceImage.getSubimage((int) blobSize.getX(), (int) blobSize.getY(), blob.getWidth(), blob.getHeight());
 
-        // blob pixel counter
-        int blobPixelCount = 0;
         // scan through every pixels for the specified lable
         for (int j = 0; j < subSourceImage.getHeight() - 1; j++) {
             for (int i = 0; i < subSourceImage.getWidth() - 1; i++) {
@@ -257,12 +319,9 @@ public class BlobExtractor {
                 if (subSourceImage.getRGB(i, j) == blobLabel) {
                     // set the blob pixel to blob color
                     blob.setRGB(i, j, BLOBCOLOR);
-                    // increment blob pixel counter
-                    blobPixelCount++;
                 }
             }
         }
-        System.out.println("Blob Pixel Count:" + blobPixelCount);
         // return the blob image
         return blob;
     }
@@ -291,6 +350,10 @@ public class BlobExtractor {
                     if (doesAdjacentPixelsHaveLabel(x, y)) {
                         // if so then get the smallest weight adjacent label
                         tempLabel = getSmallestWeightedLabelFromKernel(x, y);
+                    } else if (sourceImage.getRGB(x, y) > BLACK) {
+                        // an isolated pixel which is already labeled keeps its label
+                        // else it would get a new label on every pass without end
+                        tempLabel = sourceImage.getRGB(x, y);
                     } else {
                         // if note set temp label to the label index
                         tempLabel = labelIndex;
@@ -305,6 +368,8 @@ public class BlobExtractor {
                     }
                 }
             }
+            visitedCount += sourceImage.getWidth() - 2;
+            checkBudget();
         }
 
         // return the pixel labeling flag
@@ -493,14 +558,21 @@ public class BlobExtractor {
      * method to replace all occurance of the old label with the new one
      */
     private void replaceLabel(int oldLabel, int newLabel) {
+        mergeCount++;
+        long start = timer.mergeStarted();
+        long replaced = 0;
         for (int y = 0; y < sourceImage.getHeight(); y++) {
             for (int x = 0; x < sourceImage.getWidth(); x++) {
                 // if old label found
                 if (sourceImage.getRGB(x, y) == oldLabel) {
                     // replace it with the new label
                     sourceImage.setRGB(x, y, newLabel);
+                    replaced++;
                 }
             }
         }
+        timer.mergeCompleted(start, oldLabel, newLabel, replaced);
+        visitedCount += (long) sourceImage.getWidth() * sourceImage.getHeight();
+        checkBudget();
     }
 }
@@ -0,0 +1,143 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which holds the criteria for the blobs to be kept by an extractor
+ *
+ * the criteria are checked against the blob statistics right after labeling,
+ * before any blob handle or blob image is created, so a rejected blob costs
+ * nothing more than the labeling
+ *
+ * criteria
+ *  - area (pixel count) range
+ *  - bounding box width and height range
+ *  - aspect ratio (width / height) range
+ *  - rejection of the blobs touching the image border
+ *  - a custom predicate over the blob statistics
+ *
+ * all the ranges are inclusive and there is no limit by default
+ */
+public class BlobFilter {
+
+    // the area range
+    private long minArea = 0;
+    private long maxArea = Long.MAX_VALUE;
+    // the bounding box width range
+    private int minWidth = 0;
+    private int maxWidth = Integer.MAX_VALUE;
+    // the bounding box height range
+    private int minHeight = 0;
+    private int maxHeight = Integer.MAX_VALUE;
+    // the aspect ratio range
+    private double minAspectRatio = 0;
+    private double maxAspectRatio = Double.POSITIVE_INFINITY;
+    // whether the blobs touching the image border are rejected
+    private boolean rejectBorderBlobs = false;
+    // the custom predicate
+    private BlobPredicate predicate = null;
+
+    /*
+     * method to set the area (pixel count) range
+     */
+    public void setAreaRange(long minArea, long maxArea) {
+        this.minArea = minArea;
+        this.maxArea = maxArea;
+    }
+
+    /*
+     * method to set the bounding box width range
+     */
+    public void setWidthRange(int minWidth, int maxWidth) {
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+    }
+
+    /*
+     * method to set the bounding box height range
+     */
+    public void setHeightRange(int minHeight, int maxHeight) {
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+    }
+
+    /*
+     * method to set the aspect ratio (bounding box width / height) range
+     */
+    public void setAspectRatioRange(double minAspectRatio, double maxAspectRatio) {
+        this.minAspectRatio = minAspectRatio;
+        this.maxAspectRatio = maxAspectRatio;
+    }
+
+    /*
+     * method to set whether the blobs touching the image border are rejected
+     */
+    public void setRejectBorderBlobs(boolean rejectBorderBlobs) {
+        this.rejectBorderBlobs = rejectBorderBlobs;
+    }
+
+    /*
+     * method to set the custom predicate, null for none
+     */
+    public void setPredicate(BlobPredicate predicate) {
+        this.predicate = predicate;
+    }
+
+    /*
+     * method to check whether the blob with the specified label is to be kept
+     *
+     * the image resolution is needed for the border check
+     */
+    public boolean accept(BlobStatistics statistics, int label, int imageWidth, int imageHeight) {
+        // the cheap checks first
+        long area = statistics.getArea(label);
+        if (area < minArea || area > maxArea) {
+            return false;
+        }
+        int width = statistics.getWidth(label);
+        int height = statistics.getHeight(label);
+        if (width < minWidth || width > maxWidth || height < minHeight || height > maxHeight) {
+            return false;
+        }
+        double aspectRatio = (double) width / height;
+        if (aspectRatio < minAspectRatio || aspectRatio > maxAspectRatio) {
+            return false;
+        }
+        if (rejectBorderBlobs) {
+            int x = statistics.getX(label);
+            int y = statistics.getY(label);
+            if (x == 0 || y == 0 || x + width == imageWidth || y + height == imageHeight) {
+                return false;
+            }
+        }
+        // the custom predicate at last
+        return predicate == null || predicate.accept(statistics, label);
+    }
+}
@@ -0,0 +1,45 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of the source of the pixels of the blobs (the labeled image,
+ * the runs of the blobs etc) from which the blob handles are drawn
+ */
+public interface BlobSource {
+
+    /*
+     * method to draw the specified blob onto a packed bitmap of its bounding box
+     *
+     * the bitmap has (width + 7) / 8 bytes per row with the left most pixel in
+     * the most significant bit; the bits of the blob pixels are to be set
+     */
+    public void drawBlob(Blob blob, byte bitmap[]);
+}
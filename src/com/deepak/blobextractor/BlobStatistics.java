@@ -0,0 +1,301 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which holds the statistics of every blob of a labeled image
+ *
+ * the statistics are kept as primitive arrays indexed by the blob label
+ * (labels are consecutive from 1) and are filled in a single sweep over
+ * the labeled image, one horizontal run of same labeled pixels at a time
+ *
+ * for every blob it holds
+ *  - the bounding box
+ *  - the pixel count (area)
+ *  - the first pixel met while scanning the image
+ *  - the sums of the pixel cordinates for the centroid
+ */
+public class BlobStatistics {
+
+    // the no of blobs
+    private int blobCount = 0;
+    // the bounding box of the blobs
+    // the end cordinates are inclusive
+    private int minX[] = null;
+    private int minY[] = null;
+    private int maxX[] = null;
+    private int maxY[] = null;
+    // the first pixel of the blobs
+    private int firstX[] = null;
+    private int firstY[] = null;
+    // the pixel count of the blobs
+    private long area[] = null;
+    // the sums of the pixel cordinates of the blobs
+    private long sumX[] = null;
+    private long sumY[] = null;
+
+    /*
+     * constructor which creates empty statistics for the specified no of blobs
+     */
+    public BlobStatistics(int blobCount) {
+        this.blobCount = blobCount;
+        // index 0 is the background and is left unused
+        minX = new int[blobCount + 1];
+        minY = new int[blobCount + 1];
+        maxX = new int[blobCount + 1];
+        maxY = new int[blobCount + 1];
+        firstX = new int[blobCount + 1];
+        firstY = new int[blobCount + 1];
+        area = new long[blobCount + 1];
+        sumX = new long[blobCount + 1];
+        sumY = new long[blobCount + 1];
+    }
+
+    /*
+     * method to empty the statistics for reuse with the specified no of blobs
+     *
+     * the arrays are grown only if they are too small, so the same statistics
+     * can be refilled for every image without any allocation
+     */
+    public void reset(int blobCount) {
+        this.blobCount = blobCount;
+        if (area.length < blobCount + 1) {
+            minX = new int[blobCount + 1];
+            minY = new int[blobCount + 1];
+            maxX = new int[blobCount + 1];
+            maxY = new int[blobCount + 1];
+            firstX = new int[blobCount + 1];
+            firstY = new int[blobCount + 1];
+            area = new long[blobCount + 1];
+            sumX = new long[blobCount + 1];
+            sumY = new long[blobCount + 1];
+        } else {
+            // a blob with no area is empty, the rest is set by its first run
+            Arrays.fill(area, 0, blobCount + 1, 0);
+            Arrays.fill(sumX, 0, blobCount + 1, 0);
+            Arrays.fill(sumY, 0, blobCount + 1, 0);
+        }
+    }
+
+    /*
+     * method to get a copy of the statistics
+     */
+    public BlobStatistics copy() {
+        BlobStatistics statistics = new BlobStatistics(blobCount);
+        System.arraycopy(minX, 0, statistics.minX, 0, blobCount + 1);
+        System.arraycopy(minY, 0, statistics.minY, 0, blobCount + 1);
+        System.arraycopy(maxX, 0, statistics.maxX, 0, blobCount + 1);
+        System.arraycopy(maxY, 0, statistics.maxY, 0, blobCount + 1);
+        System.arraycopy(firstX, 0, statistics.firstX, 0, blobCount + 1);
+        System.arraycopy(firstY, 0, statistics.firstY, 0, blobCount + 1);
+        System.arraycopy(area, 0, statistics.area, 0, blobCount + 1);
+        System.arraycopy(sumX, 0, statistics.sumX, 0, blobCount + 1);
+        System.arraycopy(sumY, 0, statistics.sumY, 0, blobCount + 1);
+        return statistics;
+    }
+
+    /*
+     * method to add a single pixel to the blob with the specified label
+     */
+    public void addPixel(int label, int x, int y) {
+        addRun(label, y, x, x);
+    }
+
+    /*
+     * method to add a horizontal run of pixels (x1 to x2 inclusive in row y)
+     * to the blob with the specified label
+     *
+     * the runs of a blob are to be added in the scanning order of the image
+     * that is row wise from top to bottom and left to right in a row
+     */
+    public void addRun(int label, int y, int x1, int x2) {
+        long n = x2 - x1 + 1;
+        // the first run of the blob
+        if (area[label] == 0) {
+            firstX[label] = x1;
+            firstY[label] = y;
+            minX[label] = x1;
+            maxX[label] = x2;
+            minY[label] = y;
+        } else {
+            minX[label] = x1 < minX[label] ? x1 : minX[label];
+            maxX[label] = x2 > maxX[label] ? x2 : maxX[label];
+        }
+        // as the runs are added in scanning order the last run is the bottom most
+        maxY[label] = y;
+        area[label] += n;
+        // sum of x1 to x2
+        sumX[label] += ((long) x1 + x2) * n / 2;
+        sumY[label] += y * n;
+    }
+
+    /*
+     * method to add the statistics of a part of a blob to the blob with the
+     * specified label
+     *
+     * the part is the blob with the label otherLabel in the other statistics,
+     * this is used to join the statistics collected for the parts of an image
+     */
+    public void addStatistics(int label, BlobStatistics other, int otherLabel) {
+        addStatistics(label, other, otherLabel, 0, 0);
+    }
+
+    /*
+     * method to add the statistics of a part of a blob, collected from a part
+     * of an image with its origin at (dx, dy), to the blob with the specified label
+     *
+     * the cordinates of the part are translated by (dx, dy)
+     */
+    public void addStatistics(int label, BlobStatistics other, int otherLabel, int dx, int dy) {
+        long otherArea = other.area[otherLabel];
+        if (otherArea == 0) {
+            return;
+        }
+        int otherFirstX = other.firstX[otherLabel] + dx;
+        int otherFirstY = other.firstY[otherLabel] + dy;
+        if (area[label] == 0) {
+            firstX[label] = otherFirstX;
+            firstY[label] = otherFirstY;
+            minX[label] = other.minX[otherLabel] + dx;
+            minY[label] = other.minY[otherLabel] + dy;
+            maxX[label] = other.maxX[otherLabel] + dx;
+            maxY[label] = other.maxY[otherLabel] + dy;
+        } else {
+            // the first pixel is the one met first in the scanning order
+            if (otherFirstY < firstY[label]
+                    || (otherFirstY == firstY[label] && otherFirstX < firstX[label])) {
+                firstX[label] = otherFirstX;
+                firstY[label] = otherFirstY;
+            }
+            minX[label] = Math.min(minX[label], other.minX[otherLabel] + dx);
+            minY[label] = Math.min(minY[label], other.minY[otherLabel] + dy);
+            maxX[label] = Math.max(maxX[label], other.maxX[otherLabel] + dx);
+            maxY[label] = Math.max(maxY[label], other.maxY[otherLabel] + dy);
+        }
+        area[label] += otherArea;
+        sumX[label] += other.sumX[otherLabel] + dx * otherArea;
+        sumY[label] += other.sumY[otherLabel] + dy * otherArea;
+    }
+
+    /*
+     * method to get the no of blobs
+     */
+    public int getBlobCount() {
+        return blobCount;
+    }
+
+    /*
+     * method to get the total pixel count of all the blobs
+     */
+    public long getTotalArea() {
+        long totalArea = 0;
+        for (int i = 1; i <= blobCount; i++) {
+            totalArea += area[i];
+        }
+        return totalArea;
+    }
+
+    /*
+     * method to get the bounding box of the blob with the specified label
+     */
+    public Rectangle getBounds(int label) {
+        return new Rectangle(minX[label], minY[label], getWidth(label), getHeight(label));
+    }
+
+    /*
+     * method to get the left most x cordinate of the blob with the specified label
+     */
+    public int getX(int label) {
+        return minX[label];
+    }
+
+    /*
+     * method to get the top most y cordinate of the blob with the specified label
+     */
+    public int getY(int label) {
+        return minY[label];
+    }
+
+    /*
+     * method to get the width of the blob with the specified label
+     */
+    public int getWidth(int label) {
+        return maxX[label] - minX[label] + 1;
+    }
+
+    /*
+     * method to get the height of the blob with the specified label
+     */
+    public int getHeight(int label) {
+        return maxY[label] - minY[label] + 1;
+    }
+
+    /*
+     * method to get the pixel count of the blob with the specified label
+     */
+    public long getArea(int label) {
+        return area[label];
+    }
+
+    /*
+     * method to get the x cordinate of the first pixel of the blob
+     * with the specified label
+     */
+    public int getFirstX(int label) {
+        return firstX[label];
+    }
+
+    /*
+     * method to get the y cordinate of the first pixel of the blob
+     * with the specified label
+     */
+    public int getFirstY(int label) {
+        return firstY[label];
+    }
+
+    /*
+     * method to get the x cordinate of the centroid of the blob
+     * with the specified label
+     */
+    public double getCentroidX(int label) {
+        return (double) sumX[label] / area[label];
+    }
+
+    /*
+     * method to get the y cordinate of the centroid of the blob
+     * with the specified label
+     */
+    public double getCentroidY(int label) {
+        return (double) sumY[label] / area[label];
+    }
+}
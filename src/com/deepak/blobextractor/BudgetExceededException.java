@@ -0,0 +1,60 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the exception thrown when an extraction has run out of its budget, the
+ * limit is ExtractionBudget.DEADLINE, PIXELS or MERGES
+ */
+public class BudgetExceededException extends ExtractionAbortedException {
+
+    // the version of the serialized form
+    private static final long serialVersionUID = 1L;
+    // the names of the limits
+    private static final String LIMIT_NAMES[] = {"deadline passed", "pixel budget exceeded", "merge budget exceeded"};
+    // the limit run out of
+    private final int limit;
+
+    /*
+     * constructor which creates the exception with the limit run out of and
+     * the work done so far
+     */
+    public BudgetExceededException(int limit, long pixelCount, long mergeCount, long elapsedNanos) {
+        super("extraction stopped, " + LIMIT_NAMES[limit], pixelCount, mergeCount, elapsedNanos);
+        this.limit = limit;
+    }
+
+    /*
+     * method to get the limit run out of
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,81 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the exception thrown when an extraction is stopped before it completed
+ * (see ExtractionBudget)
+ *
+ * it carries the work done by the extraction so far : the no of pixels
+ * visited, the no of label merges and the time since the budget was created
+ */
+public class ExtractionAbortedException extends RuntimeException {
+
+    // the version of the serialized form
+    private static final long serialVersionUID = 1L;
+    // the no of pixels visited
+    private final long pixelCount;
+    // the no of label merges
+    private final long mergeCount;
+    // the time since the budget was created in nano seconds
+    private final long elapsedNanos;
+
+    /*
+     * constructor which creates the exception with the work done so far
+     */
+    public ExtractionAbortedException(String message, long pixelCount, long mergeCount, long elapsedNanos) {
+        super(message + " after " + pixelCount + " pixels visited, " + mergeCount + " merges and "
+                + (elapsedNanos / 1000000) + " ms");
+        this.pixelCount = pixelCount;
+        this.mergeCount = mergeCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /*
+     * method to get the no of pixels visited by the extraction
+     */
+    public long getPixelCount() {
+        return pixelCount;
+    }
+
+    /*
+     * method to get the no of label merges of the extraction
+     */
+    public long getMergeCount() {
+        return mergeCount;
+    }
+
+    /*
+     * method to get the time since the budget was created in nano seconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
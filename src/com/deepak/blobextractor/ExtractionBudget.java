@@ -0,0 +1,168 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the budget of a blob extraction : a deadline, a maximum no of pixels
+ * visited and a maximum no of label merges, and the cancellation of it
+ *
+ * an extractor given a budget checks it at every row it processes (and at
+ * every label merge of the kernel based extractors, which rescan the whole
+ * image) and fails fast when it runs out :
+ *  - ExtractionCancelledException when cancel() was called
+ *  - BudgetExceededException when the deadline passed or a maximum was
+ *    exceeded, telling which (DEADLINE, PIXELS or MERGES)
+ * both are ExtractionAbortedException, which carries the work done so far
+ *
+ * the limits are set before the extraction is started; cancel() can be
+ * called from any thread. a budget can be shared by the extractions of a
+ * request, the counts are of a single extraction. usage :
+ *
+ *   ExtractionBudget budget = new ExtractionBudget();
+ *   budget.setTimeout(200, TimeUnit.MILLISECONDS);
+ *   budget.setMaximumMerges(100000);
+ *   extractor.extractBlobs(image, budget);
+ */
+public class ExtractionBudget {
+
+    // the limits
+    // the deadline passed
+    public static final int DEADLINE = 0;
+    // the maximum no of pixels visited exceeded
+    public static final int PIXELS = 1;
+    // the maximum no of label merges exceeded
+    public static final int MERGES = 2;
+    // the time the budget was created
+    private final long startTime = System.nanoTime();
+    // whether there is a deadline
+    private boolean hasDeadline = false;
+    // the deadline in System.nanoTime()
+    private long deadline = 0;
+    // the maximum no of pixels visited
+    private long maximumPixels = Long.MAX_VALUE;
+    // the maximum no of label merges
+    private long maximumMerges = Long.MAX_VALUE;
+    // whether the extraction is cancelled
+    private volatile boolean cancelled = false;
+
+    /*
+     * method to set the deadline to the specified time from now
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        setDeadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /*
+     * method to set the deadline in System.nanoTime()
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+        hasDeadline = true;
+    }
+
+    /*
+     * method to get the deadline in System.nanoTime(), Long.MAX_VALUE if none
+     */
+    public long getDeadline() {
+        return hasDeadline ? deadline : Long.MAX_VALUE;
+    }
+
+    /*
+     * method to set the maximum no of pixels visited by an extraction
+     *
+     * an extractor visits a pixel once per pass over it, the kernel based
+     * extractors the whole image once more on every label merge
+     */
+    public void setMaximumPixels(long maximumPixels) {
+        this.maximumPixels = maximumPixels;
+    }
+
+    /*
+     * method to get the maximum no of pixels visited by an extraction
+     */
+    public long getMaximumPixels() {
+        return maximumPixels;
+    }
+
+    /*
+     * method to set the maximum no of label merges of an extraction
+     */
+    public void setMaximumMerges(long maximumMerges) {
+        this.maximumMerges = maximumMerges;
+    }
+
+    /*
+     * method to get the maximum no of label merges of an extraction
+     */
+    public long getMaximumMerges() {
+        return maximumMerges;
+    }
+
+    /*
+     * method to cancel the extractions of the budget
+     *
+     * the extractions in progress fail at their next check
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /*
+     * method to check whether the extractions of the budget are cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /*
+     * method to check the budget with the work done so far by an extraction
+     *
+     * throws ExtractionCancelledException if the budget is cancelled and
+     * BudgetExceededException if it has run out
+     */
+    public void check(long pixelCount, long mergeCount) {
+        if (cancelled) {
+            throw new ExtractionCancelledException(pixelCount, mergeCount, System.nanoTime() - startTime);
+        }
+        int limit = -1;
+        if (pixelCount > maximumPixels) {
+            limit = PIXELS;
+        } else if (mergeCount > maximumMerges) {
+            limit = MERGES;
+        } else if (hasDeadline && System.nanoTime() - deadline > 0) {
+            limit = DEADLINE;
+        }
+        if (limit >= 0) {
+            throw new BudgetExceededException(limit, pixelCount, mergeCount, System.nanoTime() - startTime);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the exception thrown when an extraction is cancelled by its budget
+ */
+public class ExtractionCancelledException extends ExtractionAbortedException {
+
+    // the version of the serialized form
+    private static final long serialVersionUID = 1L;
+
+    /*
+     * constructor which creates the exception with the work done so far
+     */
+    public ExtractionCancelledException(long pixelCount, long mergeCount, long elapsedNanos) {
+        super("extraction cancelled", pixelCount, mergeCount, elapsedNanos);
+    }
+}
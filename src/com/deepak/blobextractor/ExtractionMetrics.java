@@ -0,0 +1,116 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of a receiver of the metrics of the blob extractions
+ *
+ * an extractor reports to it the start of every extraction, the wall time
+ * of every phase, the labeling counters and the end of the extraction with
+ * the no of blobs found. the phases an extractor does not have are not
+ * reported; the kernel based extractors have them all
+ *
+ * NONE (the default of every extractor) drops everything, and an extractor
+ * does not even read the clock for it. a receiver shared by extractors
+ * running on many threads should be thread safe (see
+ * metrics.JmxExtractionMetrics, which exposes them as a JMX MBean)
+ */
+public interface ExtractionMetrics {
+
+    // the phases of an extraction
+    // copying the source image
+    public static final int COPY = 0;
+    // setting the new color values of the copy
+    public static final int RECOLOR = 1;
+    // labeling the pixels
+    public static final int LABELING = 2;
+    // collecting the labels (and the blob statistics)
+    public static final int LABEL_COLLECTION = 3;
+    // creating the blob images or handles
+    public static final int MATERIALIZATION = 4;
+    // the no of phases
+    public static final int PHASE_COUNT = 5;
+    // the metrics receiver which drops everything
+    public static final ExtractionMetrics NONE = new ExtractionMetrics() {
+
+        public void extractionStarted(String engine, int width, int height) {
+        }
+
+        public void phaseCompleted(int phase, long nanos) {
+        }
+
+        public void labelingCompleted(int passCount, long coreProcessingCount, long mergeCount) {
+        }
+
+        public void labelsMerged(int oldLabel, int newLabel, long pixelCount, long nanos) {
+        }
+
+        public void extractionCompleted(int blobCount, long foregroundCount, long allocatedBytes) {
+        }
+    };
+
+    /*
+     * method called when the extraction of an image of the specified
+     * resolution is started by the named engine (getrgb, arrayprocessing,
+     * level1, level2, runlength or tiled)
+     */
+    public void extractionStarted(String engine, int width, int height);
+
+    /*
+     * method called when a phase of the extraction is completed,
+     * with the wall time it took in nano seconds
+     */
+    public void phaseCompleted(int phase, long nanos);
+
+    /*
+     * method called when the labeling is completed, with the no of passes
+     * over the image, the no of pixels processed by the labeling kernel (0 for
+     * the extractors which do not use one) and the no of label merges
+     */
+    public void labelingCompleted(int passCount, long coreProcessingCount, long mergeCount);
+
+    /*
+     * method called when a label merge which relabels the pixels of the
+     * image is completed, with the no of pixels relabeled and the wall time
+     * it took in nano seconds
+     *
+     * only the kernel based extractors relabel pixels on a merge (a scan of
+     * the whole image); the merges of the union-find based extractors cost
+     * next to nothing and are only counted in labelingCompleted()
+     */
+    public void labelsMerged(int oldLabel, int newLabel, long pixelCount, long nanos);
+
+    /*
+     * method called when the extraction is completed, with the no of blobs
+     * found, the no of blob (foreground) pixels and the no of bytes allocated
+     * by the extracting thread durying the extraction (-1 if the JVM can not tell)
+     */
+    public void extractionCompleted(int blobCount, long foregroundCount, long allocatedBytes);
+}
@@ -0,0 +1,144 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which times the phases of a single extraction and reports them
+ * to the metrics receiver of the extractor
+ *
+ * a phase is timed from the end of the previous phase (or the start of the
+ * extraction), so the extractor marks only the end of every phase. for the
+ * NONE receiver nothing is measured at all
+ */
+public class ExtractionTimer {
+
+    // the metrics receiver
+    private ExtractionMetrics metrics = null;
+    // whether anything is measured
+    private boolean enabled = false;
+    // the time of the end of the last phase
+    private long mark = 0;
+    // the no of bytes allocated by the thread at the start of the extraction
+    private long allocatedMark = -1;
+
+    /*
+     * constructor which starts the timing of an extraction of an image of the
+     * specified resolution by the named engine
+     */
+    public ExtractionTimer(ExtractionMetrics metrics, String engine, int width, int height) {
+        this.metrics = metrics;
+        enabled = metrics != null && metrics != ExtractionMetrics.NONE;
+        if (enabled) {
+            metrics.extractionStarted(engine, width, height);
+            allocatedMark = getAllocatedBytes();
+            mark = System.nanoTime();
+        }
+    }
+
+    /*
+     * method to mark the end of a phase
+     */
+    public void phaseCompleted(int phase) {
+        if (enabled) {
+            long time = System.nanoTime();
+            metrics.phaseCompleted(phase, time - mark);
+            mark = time;
+        }
+    }
+
+    /*
+     * method to report the labeling counters
+     */
+    public void labelingCompleted(int passCount, long coreProcessingCount, long mergeCount) {
+        if (enabled) {
+            metrics.labelingCompleted(passCount, coreProcessingCount, mergeCount);
+        }
+    }
+
+    /*
+     * method to mark the start of a label merge
+     *
+     * returns the start time to be given to mergeCompleted()
+     */
+    public long mergeStarted() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /*
+     * method to mark the end of a label merge started at the specified time
+     */
+    public void mergeCompleted(long start, int oldLabel, int newLabel, long pixelCount) {
+        if (enabled) {
+            metrics.labelsMerged(oldLabel, newLabel, pixelCount, System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * method to mark the end of the extraction
+     */
+    public void extractionCompleted(int blobCount, long foregroundCount) {
+        if (enabled) {
+            long allocated = getAllocatedBytes();
+            metrics.extractionCompleted(blobCount, foregroundCount,
+                    allocated >= 0 && allocatedMark >= 0 ? allocated - allocatedMark : -1);
+        }
+    }
+
+    /*
+     * method to mark the end of the extraction, the no of foreground pixels
+     * is the total area of the blob statistics
+     *
+     * the areas are summed only if anything is measured
+     */
+    public void extractionCompleted(int blobCount, BlobStatistics statistics) {
+        if (enabled) {
+            extractionCompleted(blobCount, statistics.getTotalArea());
+        }
+    }
+
+    /*
+     * method to get the no of bytes allocated by the current thread so far
+     *
+     * returns -1 if the JVM does not measure it
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the common interface of the blob extractors which extract the blob images
+ * of a whole image, so an extractor (engine) can be picked at run time
+ * instead of by an import (see engine.EngineRegistry)
+ *
+ * an extractor is not thread safe unless it says so (like the concurrent
+ * level2 extractor), but can be reused for every image
+ */
+public interface ImageBlobExtractor {
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs an arraylist of
+     * detected blob images, or null if the image is not a valid image
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage img);
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images, or null if the image is
+     * not a valid image
+     *
+     * throws an ExtractionAbortedException if the budget is cancelled or runs
+     * out (see ExtractionBudget)
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage img, ExtractionBudget budget);
+
+    /*
+     * method to check whether the inputed image is a valid image or not
+     */
+    public boolean isValidImage(BufferedImage img);
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics);
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics();
+}
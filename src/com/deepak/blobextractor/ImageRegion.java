@@ -0,0 +1,303 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the region of an image to which an extraction is restricted, given by one
+ * or more rectangles (regions of interest) or by a binary mask
+ *
+ * the region is held as the spans (horizontal segments) of every row of its
+ * bounding box, in the order of x. the overlapping or touching spans of a row
+ * are joined, so a run of blob pixels is never split at a span border and
+ * every pixel of the region is read exactly once
+ *
+ * the cordinates are of the full image; a region may be larger than the
+ * image, it is clipped to the image by the extractor
+ */
+public class ImageRegion {
+
+    // the initial size of the span table
+    private static final int INITIAL_TABLE_SIZE = 64;
+    // the bounding box of the region
+    private int x = 0;
+    private int y = 0;
+    private int width = 0;
+    private int height = 0;
+    // the spans of the row y + i are rowSpanStart[i] to rowSpanStart[i + 1] - 1
+    private int rowSpanStart[] = null;
+    // the spans (x1 to x2 inclusive)
+    private int spanX1[] = null;
+    private int spanX2[] = null;
+    private int spanCount = 0;
+    // the no of pixels of the region
+    private long area = 0;
+
+    /*
+     * constructor which creates the region covered by the specified rectangles
+     *
+     * the rectangles may overlap, the empty rectangles are ignored
+     */
+    public ImageRegion(Rectangle... rectangles) {
+        // the non empty rectangles in the order of their left edges
+        ArrayList<Rectangle> rectangleList = new ArrayList<Rectangle>();
+        Rectangle bounds = null;
+        for (Rectangle rectangle : rectangles) {
+            if (rectangle.width > 0 && rectangle.height > 0) {
+                rectangleList.add(rectangle);
+                bounds = bounds == null ? new Rectangle(rectangle) : bounds.union(rectangle);
+            }
+        }
+        Collections.sort(rectangleList, new Comparator<Rectangle>() {
+
+            public int compare(Rectangle r1, Rectangle r2) {
+                return r1.x < r2.x ? -1 : (r1.x == r2.x ? 0 : 1);
+            }
+        });
+        if (bounds == null) {
+            startRows(0, 0);
+            endRows();
+            return;
+        }
+
+        startRows(bounds.y, bounds.height);
+        for (int i = 0; i < bounds.height; i++) {
+            int row = bounds.y + i;
+            rowSpanStart[i] = spanCount;
+            for (Rectangle rectangle : rectangleList) {
+                if (row < rectangle.y || row >= rectangle.y + rectangle.height) {
+                    continue;
+                }
+                int x1 = rectangle.x;
+                int x2 = rectangle.x + rectangle.width - 1;
+                // join the span to the last span of the row if it overlaps or touches it
+                if (spanCount > rowSpanStart[i] && x1 <= spanX2[spanCount - 1] + 1) {
+                    spanX2[spanCount - 1] = Math.max(spanX2[spanCount - 1], x2);
+                } else {
+                    addSpan(x1, x2);
+                }
+            }
+        }
+        endRows();
+    }
+
+    /*
+     * constructor which creates the region of the blob pixels of a mask
+     *
+     * the mask pixel (x, y) tells whether the image pixel (x, y) is in the
+     * region, so a mask image is given as new PackedBinaryImage(mask) with
+     * the region in black. the mask is read once, a whole byte of
+     * background at a time for a packed mask
+     */
+    public ImageRegion(BinaryImage mask) {
+        int maskWidth = mask.getWidth();
+        int maskHeight = mask.getHeight();
+        startRows(0, maskHeight);
+        for (int i = 0; i < maskHeight; i++) {
+            rowSpanStart[i] = spanCount;
+            int x1 = mask.nextBlobPixel(0, i);
+            while (x1 < maskWidth) {
+                int x2 = mask.nextBackgroundPixel(x1, i);
+                addSpan(x1, x2 - 1);
+                x1 = mask.nextBlobPixel(x2, i);
+            }
+        }
+        endRows();
+    }
+
+    /*
+     * constructor which creates an empty region, filled by clip()
+     */
+    private ImageRegion() {
+    }
+
+    /*
+     * method to get the part of the region within an image of the specified size
+     *
+     * returns the region itself if it is within the image
+     */
+    public ImageRegion clip(int imageWidth, int imageHeight) {
+        if (x >= 0 && y >= 0 && x + width <= imageWidth && y + height <= imageHeight) {
+            return this;
+        }
+        ImageRegion region = new ImageRegion();
+        int top = Math.max(y, 0);
+        int bottom = Math.min(y + height, imageHeight);
+        region.startRows(top, Math.max(bottom - top, 0));
+        for (int row = top; row < bottom; row++) {
+            region.rowSpanStart[row - top] = region.spanCount;
+            for (int i = getSpanStart(row); i < getSpanEnd(row); i++) {
+                int x1 = Math.max(spanX1[i], 0);
+                int x2 = Math.min(spanX2[i], imageWidth - 1);
+                if (x1 <= x2) {
+                    region.addSpan(x1, x2);
+                }
+            }
+        }
+        region.endRows();
+        return region;
+    }
+
+    /*
+     * method to start the span table of the specified rows
+     */
+    private void startRows(int top, int rowCount) {
+        y = top;
+        height = rowCount;
+        rowSpanStart = new int[rowCount + 1];
+        spanX1 = new int[INITIAL_TABLE_SIZE];
+        spanX2 = new int[INITIAL_TABLE_SIZE];
+        spanCount = 0;
+    }
+
+    /*
+     * method to add a span to the current row of the span table
+     *
+     * grows the span table when needed
+     */
+    private void addSpan(int x1, int x2) {
+        if (spanCount == spanX1.length) {
+            spanX1 = Arrays.copyOf(spanX1, spanCount * 2);
+            spanX2 = Arrays.copyOf(spanX2, spanCount * 2);
+        }
+        spanX1[spanCount] = x1;
+        spanX2[spanCount] = x2;
+        spanCount++;
+    }
+
+    /*
+     * method to end the span table
+     *
+     * the empty rows at the top and the bottom are dropped, the bounding box
+     * and the area are worked out from the spans
+     */
+    private void endRows() {
+        rowSpanStart[height] = spanCount;
+        int first = 0;
+        while (first < height && rowSpanStart[first + 1] == 0) {
+            first++;
+        }
+        int last = height - 1;
+        while (last >= first && rowSpanStart[last] == spanCount) {
+            last--;
+        }
+        if (last < first) {
+            // no span, an empty region
+            x = 0;
+            y = 0;
+            width = 0;
+            height = 0;
+            rowSpanStart = new int[1];
+            return;
+        }
+        y += first;
+        height = last - first + 1;
+        rowSpanStart = Arrays.copyOfRange(rowSpanStart, first, last + 2);
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        area = 0;
+        for (int i = 0; i < spanCount; i++) {
+            minX = Math.min(minX, spanX1[i]);
+            maxX = Math.max(maxX, spanX2[i]);
+            area += spanX2[i] - spanX1[i] + 1;
+        }
+        x = minX;
+        width = maxX - minX + 1;
+    }
+
+    /*
+     * method to get the bounding box of the region
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(x, y, width, height);
+    }
+
+    /*
+     * method to check whether the region is empty
+     */
+    public boolean isEmpty() {
+        return area == 0;
+    }
+
+    /*
+     * method to get the no of pixels of the region
+     */
+    public long getArea() {
+        return area;
+    }
+
+    /*
+     * method to check whether the pixel (x, y) is in the region
+     */
+    public boolean contains(int x, int y) {
+        for (int i = getSpanStart(y); i < getSpanEnd(y); i++) {
+            if (x >= spanX1[i] && x <= spanX2[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * method to get the index of the first span of row y
+     *
+     * the spans of row y are getSpanStart(y) to getSpanEnd(y) - 1,
+     * none for a row outside the bounding box
+     */
+    public int getSpanStart(int y) {
+        return y >= this.y && y < this.y + height ? rowSpanStart[y - this.y] : 0;
+    }
+
+    /*
+     * method to get the index after the last span of row y
+     */
+    public int getSpanEnd(int y) {
+        return y >= this.y && y < this.y + height ? rowSpanStart[y - this.y + 1] : 0;
+    }
+
+    /*
+     * method to get the left most x cordinate of a span
+     */
+    public int getSpanX1(int span) {
+        return spanX1[span];
+    }
+
+    /*
+     * method to get the right most x cordinate (inclusive) of a span
+     */
+    public int getSpanX2(int span) {
+        return spanX2[span];
+    }
+}
@@ -0,0 +1,233 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which gives a bit packed (1 bit per pixel) view of a binary image
+ *
+ * for a 1 bit TYPE_BYTE_BINARY image the packed bytes of its raster are read
+ * directly without any copy or color model conversion. for any other image
+ * the pixels are packed once, one row at a time
+ *
+ * the blob (foreground) pixels are the pixels with the blob color (black)
+ * and the background is skipped a whole byte (8 pixels) at a time
+ */
+public class PackedBinaryImage implements BinaryImage {
+
+    // the blob colour in image
+    public static final int BLOBCOLOR = Color.black.getRGB();
+    // the packed pixel data
+    private byte data[] = null;
+    // the no of bytes of a row in the packed data
+    private int scanlineStride = 0;
+    // the bit index of the pixel (0, 0) in the packed data
+    private long bitOffset = 0;
+    // the bit value of a blob pixel (0 or 1)
+    private int blobBit = 1;
+    // the byte value of 8 background pixels
+    private byte backgroundByte = 0;
+    // the byte value of 8 blob pixels
+    private byte blobByte = -1;
+    // the image resolution
+    private int w = 0;
+    private int h = 0;
+
+    /*
+     * constructor which creates the packed view of the specified image
+     */
+    public PackedBinaryImage(BufferedImage img) {
+        w = img.getWidth();
+        h = img.getHeight();
+        // read the packed raster directly if possible
+        // else pack the image pixels
+        if (!loadPackedRaster(img)) {
+            packPixels(img);
+        }
+        backgroundByte = (byte) (blobBit == 1 ? 0x00 : 0xFF);
+        blobByte = (byte) ~backgroundByte;
+    }
+
+    /*
+     * method to load the packed data of a 1 bit TYPE_BYTE_BINARY image
+     *
+     * returns false if the image is not backed by a 1 bit packed byte raster
+     * or if the blob color can not be found from a single palette entry
+     */
+    private boolean loadPackedRaster(BufferedImage img) {
+        if (img.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            return false;
+        }
+        Raster raster = img.getRaster();
+        if (!(raster.getSampleModel() instanceof MultiPixelPackedSampleModel)
+                || !(raster.getDataBuffer() instanceof DataBufferByte)
+                || !(img.getColorModel() instanceof IndexColorModel)) {
+            return false;
+        }
+        MultiPixelPackedSampleModel sampleModel = (MultiPixelPackedSampleModel) raster.getSampleModel();
+        IndexColorModel colorModel = (IndexColorModel) img.getColorModel();
+        if (sampleModel.getPixelBitStride() != 1 || colorModel.getMapSize() != 2) {
+            return false;
+        }
+        // find the palette entry of the blob color
+        boolean blob0 = colorModel.getRGB(0) == BLOBCOLOR;
+        boolean blob1 = colorModel.getRGB(1) == BLOBCOLOR;
+        if (blob0 == blob1) {
+            return false;
+        }
+        blobBit = blob1 ? 1 : 0;
+
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        data = ((DataBufferByte) dataBuffer).getData();
+        scanlineStride = sampleModel.getScanlineStride();
+        // the raster of a sub image is translated from its sample model
+        int x0 = -raster.getSampleModelTranslateX();
+        int y0 = -raster.getSampleModelTranslateY();
+        bitOffset = ((long) y0 * scanlineStride + dataBuffer.getOffset()) * 8
+                + sampleModel.getDataBitOffset() + x0;
+        return true;
+    }
+
+    /*
+     * method to pack the pixels of any other image
+     *
+     * only one row of the image is expanded to int values at a time
+     */
+    private void packPixels(BufferedImage img) {
+        blobBit = 1;
+        scanlineStride = (w + 7) / 8;
+        bitOffset = 0;
+        data = new byte[scanlineStride * h];
+        int row[] = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                if (row[x] == BLOBCOLOR) {
+                    data[y * scanlineStride + (x >> 3)] |= 0x80 >> (x & 7);
+                }
+            }
+        }
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return w;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return h;
+    }
+
+    /*
+     * method to check whether the pixel at the specified position is a blob pixel
+     */
+    public boolean isBlobPixel(int x, int y) {
+        long bit = bitOffset + (long) y * scanlineStride * 8 + x;
+        return ((data[(int) (bit >>> 3)] >> (7 - (int) (bit & 7))) & 1) == blobBit;
+    }
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * starting from x (inclusive)
+     *
+     * returns the image width if there is no more blob pixel in the row
+     */
+    public int nextBlobPixel(int x, int y) {
+        return nextPixel(x, y, w, blobBit, backgroundByte);
+    }
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more blob pixel in the row before end
+     */
+    public int nextBlobPixel(int x, int y, int end) {
+        return nextPixel(x, y, end, blobBit, backgroundByte);
+    }
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * starting from x (inclusive), that is the end of the current run of blob pixels
+     *
+     * returns the image width if there is no more background pixel in the row
+     */
+    public int nextBackgroundPixel(int x, int y) {
+        return nextPixel(x, y, w, blobBit ^ 1, blobByte);
+    }
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more background pixel in the row before end
+     */
+    public int nextBackgroundPixel(int x, int y, int end) {
+        return nextPixel(x, y, end, blobBit ^ 1, blobByte);
+    }
+
+    /*
+     * method to get the x cordinate of the next pixel with the specified bit
+     * value before end
+     *
+     * the whole bytes with all the 8 pixels of the other value are skipped at once
+     */
+    private int nextPixel(int x, int y, int end, int bitValue, byte skipByte) {
+        long rowStart = bitOffset + (long) y * scanlineStride * 8;
+        long bit = rowStart + x;
+        long rowEnd = rowStart + end;
+        while (bit < rowEnd) {
+            byte b = data[(int) (bit >>> 3)];
+            int bitInByte = (int) (bit & 7);
+            // skip the whole byte if it is byte aligned and has no pixel of the bit value
+            if (bitInByte == 0 && b == skipByte && bit + 8 <= rowEnd) {
+                bit += 8;
+                continue;
+            }
+            if (((b >> (7 - bitInByte)) & 1) == bitValue) {
+                return (int) (bit - rowStart);
+            }
+            bit++;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,140 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.image.BufferedImage;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the policy which turns a gray or color image into a binary image
+ *
+ * the dark pixels are the blob pixels, the same as the black blob pixels of
+ * a binary image. a pixel is a blob pixel if its gray level (0 to 255) is
+ * below the threshold, which is
+ *  - FIXED    : a fixed gray level
+ *  - OTSU     : the gray level which best splits the histogram of the image
+ *               into two classes (Otsu's method)
+ *  - ADAPTIVE : the mean gray level of the block of the pixel less an offset,
+ *               for images with uneven lighting
+ *
+ * a binary (TYPE_BYTE_BINARY) image is read as it is by every policy
+ */
+public class ThresholdPolicy {
+
+    // the threshold methods
+    public static final int FIXED = 0;
+    public static final int OTSU = 1;
+    public static final int ADAPTIVE = 2;
+    // the threshold method of the policy
+    private int method = FIXED;
+    // the fixed threshold
+    private int threshold = 128;
+    // the block size and the offset of the adaptive threshold
+    private int blockSize = 0;
+    private int offset = 0;
+
+    /*
+     * constructor which creates a policy, use the factory methods
+     */
+    private ThresholdPolicy(int method, int threshold, int blockSize, int offset) {
+        this.method = method;
+        this.threshold = threshold;
+        this.blockSize = blockSize;
+        this.offset = offset;
+    }
+
+    /*
+     * method to get the policy with a fixed threshold (0 to 256)
+     */
+    public static ThresholdPolicy fixed(int threshold) {
+        if (threshold < 0 || threshold > 256) {
+            throw new IllegalArgumentException("threshold should be from 0 to 256");
+        }
+        return new ThresholdPolicy(FIXED, threshold, 0, 0);
+    }
+
+    /*
+     * method to get the policy with the threshold found by Otsu's method
+     */
+    public static ThresholdPolicy otsu() {
+        return new ThresholdPolicy(OTSU, 0, 0, 0);
+    }
+
+    /*
+     * method to get the policy with the threshold of every block of
+     * blockSize x blockSize pixels being its mean gray level less the offset
+     */
+    public static ThresholdPolicy adaptive(int blockSize, int offset) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("block size should be at least 1");
+        }
+        return new ThresholdPolicy(ADAPTIVE, 0, blockSize, offset);
+    }
+
+    /*
+     * method to get the binary view of an image
+     *
+     * a binary image is read as packed bits, any other image is thresholded
+     * on the fly while it is read
+     */
+    public BinaryImage apply(BufferedImage img) {
+        if (img.getType() == BufferedImage.TYPE_BYTE_BINARY) {
+            return new PackedBinaryImage(img);
+        }
+        return new ThresholdedImage(img, this);
+    }
+
+    /*
+     * method to get the threshold method (FIXED, OTSU or ADAPTIVE)
+     */
+    public int getMethod() {
+        return method;
+    }
+
+    /*
+     * method to get the fixed threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /*
+     * method to get the block size of the adaptive threshold
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /*
+     * method to get the offset of the adaptive threshold
+     */
+    public int getOffset() {
+        return offset;
+    }
+}
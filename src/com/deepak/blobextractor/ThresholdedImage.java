@@ -0,0 +1,365 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which gives a binary view of a gray or color image by a
+ * threshold policy (see ThresholdPolicy)
+ *
+ * the gray level of a pixel is worked out from the raster data of the image
+ * only when the pixel is read by the labeling pass, so no binary image or
+ * gray copy is made. the 8 bit gray and the 8 bit per sample RGB images
+ * (byte interleaved like TYPE_3BYTE_BGR or int packed like TYPE_INT_RGB) are
+ * read directly; any other image is converted once to a gray copy
+ *
+ * with a fixed threshold every pixel is read exactly once. Otsu's method and
+ * the adaptive threshold need the gray levels of the whole image (or block)
+ * before the first pixel can be decided, so they read the image once more
+ * for the histogram or the block means
+ */
+public class ThresholdedImage implements BinaryImage {
+
+    // the raster layouts
+    private static final int GRAY_BYTES = 0;
+    private static final int RGB_BYTES = 1;
+    private static final int RGB_INTS = 2;
+    // the raster layout of the image
+    private int layout = GRAY_BYTES;
+    // the raster data
+    private byte bytes[] = null;
+    private int ints[] = null;
+    // the index of the pixel (0, 0) in the raster data
+    private int origin = 0;
+    // the no of elements of a row and of a pixel in the raster data
+    private int scanlineStride = 0;
+    private int pixelStride = 1;
+    // the offsets (bytes) or shifts (ints) of the red, green and blue samples
+    private int red = 0;
+    private int green = 0;
+    private int blue = 0;
+    // the image resolution
+    private int w = 0;
+    private int h = 0;
+    // the threshold, a pixel darker than it is a blob pixel
+    private int threshold = 0;
+    // the thresholds of the blocks for the adaptive threshold, else null
+    private int blockThreshold[] = null;
+    private int blockSize = 0;
+    private int blockColumns = 0;
+
+    /*
+     * constructor which creates the binary view of the specified image
+     */
+    public ThresholdedImage(BufferedImage img, ThresholdPolicy policy) {
+        w = img.getWidth();
+        h = img.getHeight();
+        // read the raster directly if possible
+        // else make a gray copy of the image
+        if (!loadByteRaster(img) && !loadIntRaster(img)) {
+            convertToGray(img);
+        }
+        if (policy.getMethod() == ThresholdPolicy.FIXED) {
+            threshold = policy.getThreshold();
+        } else if (policy.getMethod() == ThresholdPolicy.OTSU) {
+            threshold = findOtsuThreshold();
+        } else {
+            findBlockThresholds(policy.getBlockSize(), policy.getOffset());
+        }
+    }
+
+    /*
+     * method to load the raster of an 8 bit gray or RGB image with a sample per byte
+     */
+    private boolean loadByteRaster(BufferedImage img) {
+        Raster raster = img.getRaster();
+        ColorModel colorModel = img.getColorModel();
+        if (!(raster.getSampleModel() instanceof ComponentSampleModel)
+                || !(raster.getDataBuffer() instanceof DataBufferByte)
+                || raster.getDataBuffer().getNumBanks() != 1) {
+            return false;
+        }
+        ComponentSampleModel sampleModel = (ComponentSampleModel) raster.getSampleModel();
+        int bandOffsets[] = sampleModel.getBandOffsets();
+        int colorSpace = colorModel.getColorSpace().getType();
+        if (colorSpace == ColorSpace.TYPE_GRAY && colorModel.getNumColorComponents() == 1
+                && colorModel.getComponentSize(0) == 8) {
+            layout = GRAY_BYTES;
+            red = bandOffsets[0];
+        } else if (colorSpace == ColorSpace.TYPE_RGB && colorModel.getNumColorComponents() == 3
+                && colorModel.getComponentSize(0) == 8 && colorModel.getComponentSize(1) == 8
+                && colorModel.getComponentSize(2) == 8 && !(colorModel instanceof IndexColorModel)) {
+            layout = RGB_BYTES;
+            red = bandOffsets[0];
+            green = bandOffsets[1];
+            blue = bandOffsets[2];
+        } else {
+            return false;
+        }
+        bytes = ((DataBufferByte) raster.getDataBuffer()).getData();
+        scanlineStride = sampleModel.getScanlineStride();
+        pixelStride = sampleModel.getPixelStride();
+        // the raster of a sub image is translated from its sample model
+        origin = raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * scanlineStride
+                - raster.getSampleModelTranslateX() * pixelStride;
+        return true;
+    }
+
+    /*
+     * method to load the raster of an RGB image with a pixel per int
+     * (8 bits per sample)
+     */
+    private boolean loadIntRaster(BufferedImage img) {
+        Raster raster = img.getRaster();
+        if (!(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)
+                || !(raster.getDataBuffer() instanceof DataBufferInt)
+                || !(img.getColorModel() instanceof DirectColorModel)) {
+            return false;
+        }
+        DirectColorModel colorModel = (DirectColorModel) img.getColorModel();
+        if (Integer.bitCount(colorModel.getRedMask()) != 8 || Integer.bitCount(colorModel.getGreenMask()) != 8
+                || Integer.bitCount(colorModel.getBlueMask()) != 8) {
+            return false;
+        }
+        SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        layout = RGB_INTS;
+        red = Integer.numberOfTrailingZeros(colorModel.getRedMask());
+        green = Integer.numberOfTrailingZeros(colorModel.getGreenMask());
+        blue = Integer.numberOfTrailingZeros(colorModel.getBlueMask());
+        ints = ((DataBufferInt) raster.getDataBuffer()).getData();
+        scanlineStride = sampleModel.getScanlineStride();
+        pixelStride = 1;
+        origin = raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * scanlineStride
+                - raster.getSampleModelTranslateX();
+        return true;
+    }
+
+    /*
+     * method to make a gray copy of any other image
+     *
+     * only one row of the image is expanded to int values at a time
+     */
+    private void convertToGray(BufferedImage img) {
+        layout = GRAY_BYTES;
+        bytes = new byte[w * h];
+        origin = 0;
+        scanlineStride = w;
+        pixelStride = 1;
+        red = 0;
+        int row[] = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                int rgb = row[x];
+                bytes[y * w + x] = (byte) luminance((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+            }
+        }
+    }
+
+    /*
+     * method to get the gray level of a color
+     */
+    private static int luminance(int r, int g, int b) {
+        // the rec 601 weights in 8 bit fixed point
+        return (77 * r + 150 * g + 29 * b) >> 8;
+    }
+
+    /*
+     * method to get the gray level (0 to 255) of a pixel
+     */
+    private int gray(int x, int y) {
+        int i = origin + y * scanlineStride + x * pixelStride;
+        if (layout == GRAY_BYTES) {
+            return bytes[i + red] & 0xFF;
+        } else if (layout == RGB_BYTES) {
+            return luminance(bytes[i + red] & 0xFF, bytes[i + green] & 0xFF, bytes[i + blue] & 0xFF);
+        } else {
+            int pixel = ints[i];
+            return luminance((pixel >>> red) & 0xFF, (pixel >>> green) & 0xFF, (pixel >>> blue) & 0xFF);
+        }
+    }
+
+    /*
+     * method to find the threshold by Otsu's method
+     *
+     * the threshold is the one which gives the largest variance between the
+     * means of the dark and the light pixels of the gray level histogram
+     */
+    private int findOtsuThreshold() {
+        long histogram[] = new long[256];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                histogram[gray(x, y)]++;
+            }
+        }
+        long total = (long) w * h;
+        double sum = 0;
+        for (int i = 0; i < 256; i++) {
+            sum += (double) i * histogram[i];
+        }
+        // the dark class is the gray levels 0 to t
+        double darkSum = 0;
+        long darkCount = 0;
+        double bestVariance = -1;
+        int best = -1;
+        for (int t = 0; t < 255; t++) {
+            darkCount += histogram[t];
+            darkSum += (double) t * histogram[t];
+            long lightCount = total - darkCount;
+            if (darkCount == 0 || lightCount == 0) {
+                continue;
+            }
+            double meanDifference = darkSum / darkCount - (sum - darkSum) / lightCount;
+            double variance = (double) darkCount * lightCount * meanDifference * meanDifference;
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                best = t;
+            }
+        }
+        // the pixels darker than best + 1 are the blob pixels
+        // a single gray level image has no blob pixels
+        return best + 1;
+    }
+
+    /*
+     * method to find the threshold of every block as the mean gray level
+     * of the block less the offset
+     */
+    private void findBlockThresholds(int size, int offset) {
+        blockSize = size;
+        blockColumns = (w + size - 1) / size;
+        int blockRows = (h + size - 1) / size;
+        long sums[] = new long[blockColumns * blockRows];
+        for (int y = 0; y < h; y++) {
+            int blockRow = (y / size) * blockColumns;
+            for (int x = 0; x < w; x++) {
+                sums[blockRow + x / size] += gray(x, y);
+            }
+        }
+        blockThreshold = new int[sums.length];
+        for (int j = 0; j < blockRows; j++) {
+            for (int i = 0; i < blockColumns; i++) {
+                // the blocks on the right and bottom edges may be smaller
+                long count = (long) (Math.min(w, (i + 1) * size) - i * size) * (Math.min(h, (j + 1) * size) - j * size);
+                blockThreshold[j * blockColumns + i] = (int) (sums[j * blockColumns + i] / count) - offset;
+            }
+        }
+    }
+
+    /*
+     * method to get the threshold found by the policy, the pixels darker than
+     * it are the blob pixels (the adaptive threshold has a threshold per block)
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return w;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return h;
+    }
+
+    /*
+     * method to check whether the pixel at the specified position is a blob pixel
+     */
+    public boolean isBlobPixel(int x, int y) {
+        if (blockThreshold != null) {
+            return gray(x, y) < blockThreshold[(y / blockSize) * blockColumns + x / blockSize];
+        }
+        return gray(x, y) < threshold;
+    }
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * starting from x (inclusive)
+     *
+     * returns the image width if there is no more blob pixel in the row
+     */
+    public int nextBlobPixel(int x, int y) {
+        return nextBlobPixel(x, y, w);
+    }
+
+    /*
+     * method to get the x cordinate of the next blob pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more blob pixel in the row before end
+     */
+    public int nextBlobPixel(int x, int y, int end) {
+        while (x < end && !isBlobPixel(x, y)) {
+            x++;
+        }
+        return x;
+    }
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * starting from x (inclusive), that is the end of the current run of blob pixels
+     *
+     * returns the image width if there is no more background pixel in the row
+     */
+    public int nextBackgroundPixel(int x, int y) {
+        return nextBackgroundPixel(x, y, w);
+    }
+
+    /*
+     * method to get the x cordinate of the next background pixel in row y
+     * from x (inclusive) to end (exclusive)
+     *
+     * returns end if there is no more background pixel in the row before end
+     */
+    public int nextBackgroundPixel(int x, int y, int end) {
+        while (x < end && isBlobPixel(x, y)) {
+            x++;
+        }
+        return x;
+    }
+}
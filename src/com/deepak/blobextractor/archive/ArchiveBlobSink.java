@@ -0,0 +1,62 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.archive;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.batch.BlobSink;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the blob sink which writes all the blobs of an image to a single blob
+ * archive in a directory, named after the image with the .blobs extension
+ */
+public class ArchiveBlobSink implements BlobSink {
+
+    // the extension of the blob archive files
+    public static final String EXTENSION = "blobs";
+    // the output directory
+    private File directory = null;
+
+    /*
+     * constructor which creates a sink writing the archives to the specified directory
+     */
+    public ArchiveBlobSink(File directory) {
+        this.directory = directory;
+    }
+
+    /*
+     * method to write the blobs of an image to its archive
+     */
+    public void blobsExtracted(String name, ArrayList<Blob> blobs) throws IOException {
+        BlobArchiveWriter.write(new File(directory, name + "." + EXTENSION), blobs);
+    }
+}
@@ -0,0 +1,63 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.archive;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the layout of a blob archive, a single file holding all the blobs of an image
+ *
+ * header : magic (int), version (int), blob count (int)
+ * index  : an entry of ENTRY_SIZE bytes for every blob
+ *          label (int), x, y, width, height (int), area (long),
+ *          data offset from the start of the file (long), data length (int),
+ *          encoding (int)
+ * data   : the mask of every blob, in the order of the index
+ *
+ * a blob mask is encoded as
+ *  - PACKED : the packed bitmap of the blob bounding box, (width + 7) / 8
+ *             bytes per row with the left most pixel in the high bit
+ *  - RLE    : for every row the no of runs followed by the gap from the end
+ *             of the last run (or the row start) and the length of every run,
+ *             all as variable length integers (7 bits a byte, low bits first)
+ * whichever is smaller. all the values are big endian
+ */
+class BlobArchiveFormat {
+
+    // the magic no ("BLBA")
+    static final int MAGIC = 0x424C4241;
+    // the format version
+    static final int VERSION = 1;
+    // the size of the header
+    static final int HEADER_SIZE = 12;
+    // the size of an index entry
+    static final int ENTRY_SIZE = 44;
+    // the blob mask encodings
+    static final int PACKED = 0;
+    static final int RLE = 1;
+}
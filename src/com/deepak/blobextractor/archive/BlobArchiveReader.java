@@ -0,0 +1,171 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.archive;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobSource;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which reads the blobs of a blob archive (see BlobArchiveFormat)
+ *
+ * the archive is memory mapped, so any blob is read by its index without
+ * reading the blobs before it; only the header is checked on opening and
+ * a blob mask is decoded only when the blob is drawn
+ */
+public class BlobArchiveReader implements Closeable {
+
+    // the mapped archive
+    private MappedByteBuffer data = null;
+    // the no of blobs
+    private int blobCount = 0;
+
+    /*
+     * constructor which maps the specified archive file
+     */
+    public BlobArchiveReader(File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            long size = randomAccessFile.length();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("blob archive is too large to be mapped");
+            }
+            if (size < BlobArchiveFormat.HEADER_SIZE) {
+                throw new IOException("Invalid blob archive! file is truncated.");
+            }
+            data = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } finally {
+            // the mapping stays valid after the file is closed
+            randomAccessFile.close();
+        }
+        if (data.getInt(0) != BlobArchiveFormat.MAGIC) {
+            throw new IOException("Invalid blob archive! bad magic no.");
+        }
+        if (data.getInt(4) != BlobArchiveFormat.VERSION) {
+            throw new IOException("Invalid blob archive! unknown version " + data.getInt(4) + ".");
+        }
+        blobCount = data.getInt(8);
+        if (blobCount < 0 || BlobArchiveFormat.HEADER_SIZE + (long) BlobArchiveFormat.ENTRY_SIZE * blobCount > data.capacity()) {
+            throw new IOException("Invalid blob archive! index is truncated.");
+        }
+    }
+
+    /*
+     * method to get the no of blobs in the archive
+     */
+    public int getBlobCount() {
+        return blobCount;
+    }
+
+    /*
+     * method to get the handle of the blob with the specified index (0 to blob count - 1)
+     *
+     * the handle is drawn from the archive, so it is valid till the reader is closed
+     */
+    public Blob getBlob(int index) {
+        if (index < 0 || index >= blobCount) {
+            throw new IndexOutOfBoundsException("blob index " + index + " of " + blobCount);
+        }
+        int entry = BlobArchiveFormat.HEADER_SIZE + BlobArchiveFormat.ENTRY_SIZE * index;
+        return new Blob(data.getInt(entry), data.getInt(entry + 4), data.getInt(entry + 8),
+                data.getInt(entry + 12), data.getInt(entry + 16), data.getLong(entry + 20), new EntrySource(entry));
+    }
+
+    /*
+     * method to release the mapped archive
+     *
+     * the mapping is unmapped when it is garbage collected
+     */
+    public void close() {
+        data = null;
+    }
+
+    /*
+     * the blob source which draws a blob from its mask in the archive
+     */
+    private class EntrySource implements BlobSource {
+
+        // the position of the index entry of the blob
+        private int entry = 0;
+
+        EntrySource(int entry) {
+            this.entry = entry;
+        }
+
+        /*
+         * method to decode the blob mask onto the packed bitmap
+         */
+        public void drawBlob(Blob blob, byte bitmap[]) {
+            int offset = (int) data.getLong(entry + 28);
+            int length = data.getInt(entry + 36);
+            if (data.getInt(entry + 40) == BlobArchiveFormat.PACKED) {
+                // the packed bitmap is stored as it is
+                for (int i = 0; i < length; i++) {
+                    bitmap[i] = data.get(offset + i);
+                }
+                return;
+            }
+            // the runs of every row
+            int stride = (blob.getWidth() + 7) / 8;
+            int position[] = {offset};
+            for (int y = 0; y < blob.getHeight(); y++) {
+                int runCount = readVarInt(position);
+                int x = 0;
+                for (int i = 0; i < runCount; i++) {
+                    x += readVarInt(position);
+                    int runLength = readVarInt(position);
+                    Blob.fillRun(bitmap, y * stride, x, x + runLength - 1);
+                    x += runLength;
+                }
+            }
+        }
+
+        /*
+         * method to read a variable length integer at the position,
+         * moving the position past it
+         */
+        private int readVarInt(int position[]) {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = data.get(position[0]++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.archive;
+
+import com.deepak.blobextractor.Blob;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which writes the blobs of an image to a blob archive
+ * (see BlobArchiveFormat)
+ *
+ * every blob mask is encoded before anything is written, so the header and
+ * the index come first and the whole file is written sequentially through a
+ * file channel, in a few large writes
+ */
+public class BlobArchiveWriter {
+
+    // the size of the write buffer of the blob data
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /*
+     * method to write the specified blobs to a blob archive file
+     */
+    public static void write(File file, List<Blob> blobs) throws IOException {
+        // encode the blob masks
+        byte masks[][] = new byte[blobs.size()][];
+        int encodings[] = new int[blobs.size()];
+        for (int i = 0; i < masks.length; i++) {
+            Blob blob = blobs.get(i);
+            byte packed[] = blob.getPackedBitmap();
+            byte rle[] = encodeRuns(packed, blob.getWidth(), blob.getHeight());
+            // keep the smaller encoding
+            if (rle.length < packed.length) {
+                masks[i] = rle;
+                encodings[i] = BlobArchiveFormat.RLE;
+            } else {
+                masks[i] = packed;
+                encodings[i] = BlobArchiveFormat.PACKED;
+            }
+        }
+
+        // the header and the index
+        ByteBuffer index = ByteBuffer.allocate(BlobArchiveFormat.HEADER_SIZE + BlobArchiveFormat.ENTRY_SIZE * masks.length);
+        index.putInt(BlobArchiveFormat.MAGIC);
+        index.putInt(BlobArchiveFormat.VERSION);
+        index.putInt(masks.length);
+        long offset = index.capacity();
+        for (int i = 0; i < masks.length; i++) {
+            Blob blob = blobs.get(i);
+            index.putInt(blob.getLabel());
+            index.putInt(blob.getX());
+            index.putInt(blob.getY());
+            index.putInt(blob.getWidth());
+            index.putInt(blob.getHeight());
+            index.putLong(blob.getArea());
+            index.putLong(offset);
+            index.putInt(masks[i].length);
+            index.putInt(encodings[i]);
+            offset += masks[i].length;
+        }
+        index.flip();
+
+        // write the header, the index and the blob data in order
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            FileChannel channel = out.getChannel();
+            writeFully(channel, index);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (byte mask[] : masks) {
+                if (mask.length > buffer.remaining()) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                if (mask.length > buffer.capacity()) {
+                    // a large mask is written directly
+                    writeFully(channel, ByteBuffer.wrap(mask));
+                } else {
+                    buffer.put(mask);
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        } finally {
+            out.close();
+        }
+    }
+
+    /*
+     * method to write all the bytes of a buffer to a channel
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /*
+     * method to encode a packed bitmap as runs
+     */
+    private static byte[] encodeRuns(byte packed[], int width, int height) {
+        int stride = (width + 7) / 8;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int starts[] = new int[(width + 1) / 2];
+        int ends[] = new int[(width + 1) / 2];
+        for (int y = 0; y < height; y++) {
+            // find the runs of the row
+            int runCount = 0;
+            int x = 0;
+            while (x < width) {
+                if ((packed[y * stride + (x >> 3)] & (0x80 >> (x & 7))) == 0) {
+                    x++;
+                    continue;
+                }
+                starts[runCount] = x;
+                while (x < width && (packed[y * stride + (x >> 3)] & (0x80 >> (x & 7))) != 0) {
+                    x++;
+                }
+                ends[runCount++] = x;
+            }
+            writeVarInt(out, runCount);
+            int last = 0;
+            for (int i = 0; i < runCount; i++) {
+                writeVarInt(out, starts[i] - last);
+                writeVarInt(out, ends[i] - starts[i]);
+                last = ends[i];
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /*
+     * method to write a variable length integer, 7 bits a byte
+     */
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while (value >= 0x80) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -24,6 +24,10 @@ along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.deepak.blobextractor.arrayprocessing;
 
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ExtractionTimer;
+import com.deepak.blobextractor.ImageBlobExtractor;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Rectangle;
@@ -40,7 +44,7 @@ import java.util.ArrayList;
  *
  * blob extraction based on labeling process using a 3x3 kernel
  */
-public class BlobExtractor {
+public class BlobExtractor implements ImageBlobExtractor {
 
     // the source image
     private int img[] = null;
@@ -61,16 +65,30 @@ public class BlobExtractor {
     private int labelIndex = 2;
     // counter for core processing of the image pixel
     private int coreProcessingCount = 0;
+    // counter for the label merges (replaced labels) of the image
+    private int mergeCount = 0;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the budget of the current extraction, null if none
+    private ExtractionBudget budget = null;
+    // the no of pixels visited by the current extraction
+    private long visitedCount = 0;
+    // the timer of the phases of the current extraction
+    private ExtractionTimer timer = null;
+    // the no of blob pixels of the current image
+    private long foregroundCount = 0;
 
     /*
      * method to load new color values to the binary image
      */
     private void loadNewColorValues() {
+        foregroundCount = 0;
         // for all pixels in the image
         for (int i = 0; i < img.length; i++) {
             // if old blob color found then replace it with new blob color
             if (img[i] == BLOBCOLOR) {
                 img[i] = BLACK;
+                foregroundCount++;
             } // else replace it with new background color
             else {
                 img[i] = WHITE;
@@ -84,12 +102,31 @@ public class BlobExtractor {
      * detected blob images
      */
     public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage) {
+        return extractBlobs(sourceImage, null);
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked after every row of every pass and after every
+     * label merge (a scan of the whole image), an ExtractionAbortedException
+     * is thrown when it is cancelled or runs out
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ExtractionBudget budget) {
 
         // create a blob image list
         ArrayList<BufferedImage> blobList = null;
 
         // check whether the image is a valid image
         if (isValidImage(sourceImage)) {
+            // time the phases of the extraction
+            // the work done is checked against the budget
+            this.budget = budget;
+            visitedCount = 0;
+            mergeCount = 0;
+            timer = new ExtractionTimer(metrics, "arrayprocessing", sourceImage.getWidth(), sourceImage.getHeight());
             // take the copy of the original image
             // the type is set to int argb insted of the original imags byte binary as
             // durying processing pixel rgb values are to be replaced by the label values
@@ -100,29 +137,43 @@ public class BlobExtractor {
 
             sourceImage.getRGB(0, 0, w, h, img, 0, w);
 
-            System.out.println("Image Copied.");
+            timer.phaseCompleted(ExtractionMetrics.COPY);
 
             // now load new color values for the source image
             loadNewColorValues();
-            System.out.println("New color values set.");
+            timer.phaseCompleted(ExtractionMetrics.RECOLOR);
+            checkBudget();
+
+            // the labels and the counter start afresh for every image
+            // so the extractor can be reused for the next image
+            labelIndex = 2;
+            coreProcessingCount = 0;
+            mergeCount = 0;
 
             // start labeling blobs
-            System.out.println("Labeling Started");
             // the no of pass counter
             int pass = 0;
             while (doLabeling()) {
                 pass++;
             }
-            System.out.println("Labeling Completed.");
-            System.out.println("Labeling Pass Count:" + pass);
-            System.out.println("Core processing count:" + coreProcessingCount);
+            timer.phaseCompleted(ExtractionMetrics.LABELING);
+            timer.labelingCompleted(pass, coreProcessingCount, mergeCount);
+
+            // get the labels of the blobs
+            ArrayList<Integer> labelList = getLabels();
+            timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
 
             // initialise the blob image array list
             blobList = new ArrayList<BufferedImage>();
             // for every labeled blob get the blob and load it onto the blobs list
-            for (Integer i : getLabels()) {
+            for (Integer i : labelList) {
                 blobList.add(getBlob(i));
+                // every blob is found by scanning the image
+                visitedCount += (long) w * h;
+                checkBudget();
             }
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), foregroundCount);
         }
         // return the blob list
         return blobList;
@@ -144,11 +195,35 @@ public class BlobExtractor {
                 labelList.add(img[i]);
             }
         }
-        System.out.println("Label List Size: " + labelList.size());
         // return the label list
         return labelList;
     }
 
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to check the budget of the current extraction, if any, with the
+     * work done so far
+     */
+    private void checkBudget() {
+        if (budget != null) {
+            budget.check(visitedCount, mergeCount);
+        }
+    }
+
     /*
      * method to check whether the inputed image is a valid image or not
      */
@@ -166,7 +241,6 @@ public class BlobExtractor {
             System.out.println("Error : Invalid Image! image should be binary image.");
             return false;
         }
-        System.out.println("Valid Image Input.");
         // if all the abouve conditions are satisfied then it is a valid image for blob extraction
         return true;
     }
@@ -222,12 +296,6 @@ public class BlobExtractor {
         // and if it is a vertical line then the width becomes zero
         width = width < 1 ? 1 : width;
         height = height < 1 ? 1 : height;
-
-        System.out.println("Blob Label :" + blobLabel);
-        System.out.println("x: " + x1);
-        System.out.println("y: " + y1);
-        System.out.println("w: " + width);
-        System.out.println("h: " + height);
         // return the blobs size (resolution)
         return new Rectangle(x1, y1, width, height);
     }
@@ -247,8 +315,6 @@ public class BlobExtractor {
         // paint the whole buffer with white paint
         blobGraphics.fillRect(0, 0, blob.getWidth(), blob.getHeight());
 
-        // blob pixel counter
-        int blobPixelCount = 0;
         // scan through every pixels for the specified lable
         for (int j = blobSize.y, y=0; j < (blobSize.y + blobSize.height - 1); j++,y++) {
             for (int i = blobSize.x, x=0; i < (blobSize.x + blobSize.width - 1); i++,x++) {
@@ -256,12 +322,9 @@ public class BlobExtractor {
                 if (img[i + (j * w)] == blobLabel) {
                     // set the blob pixel to blob color
                     blob.setRGB(x, y, BLOBCOLOR);
-                    // increment blob pixel counter
-                    blobPixelCount++;
                 }
             }
         }
-        System.out.println("Blob Pixel Count:" + blobPixelCount);
         // return the blob image
         return blob;
     }
@@ -290,6 +353,10 @@ public class BlobExtractor {
                     if (doesAdjacentPixelsHaveLabel(x, y)) {
                         // if so then get the smallest weight adjacent label
                         tempLabel = getSmallestWeightedLabelFromKernel(x, y);
+                    } else if (img[x + (y * w)] > BLACK) {
+                        // an isolated pixel which is already labeled keeps its label
+                        // else it would get a new label on every pass without end
+                        tempLabel = img[x + (y * w)];
                     } else {
                         // if note set temp label to the label index
                         tempLabel = labelIndex;
@@ -304,6 +371,8 @@ public class BlobExtractor {
                     }
                 }
             }
+            visitedCount += w - 2;
+            checkBudget();
         }
 
         // return the pixel labeling flag
@@ -492,12 +561,19 @@ public class BlobExtractor {
      * method to replace all occurance of the old label with the new one
      */
     private void replaceLabel(int oldLabel, int newLabel) {
+        mergeCount++;
+        long start = timer.mergeStarted();
+        long replaced = 0;
         for (int i = 0; i < img.length; i++) {
             // if old label found
             if (img[i] == oldLabel) {
                 // replace it with the new label
                 img[i] = newLabel;
+                replaced++;
             }
         }
+        timer.mergeCompleted(start, oldLabel, newLabel, replaced);
+        visitedCount += img.length;
+        checkBudget();
     }
 }
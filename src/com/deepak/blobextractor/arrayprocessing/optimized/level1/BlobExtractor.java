@@ -24,6 +24,10 @@ along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.deepak.blobextractor.arrayprocessing.optimized.level1;
 
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ExtractionTimer;
+import com.deepak.blobextractor.ImageBlobExtractor;
 import java.awt.Color;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
@@ -38,8 +42,17 @@ import java.util.ArrayList;
  * the class which provides methods for blob extraction from an binary image
  *
  * blob extraction based on labeling process using a 3x3 kernel
+ *
+ * #OPTIMIZED
+ * a pass visits only the kernels around the pixels changed since their last
+ * visit. the columns changed in every row are kept as a span for the current
+ * and the last pass, and a kernel is visited only if its 3 rows have a
+ * changed column within 1 of it. a kernel whose pixels did not change since
+ * it was last visited would label nothing, so the labels, the passes and the
+ * merges are the same as of the full scans (see arrayprocessing.BlobExtractor);
+ * only the no of kernels processed goes down
  */
-public class BlobExtractor {
+public class BlobExtractor implements ImageBlobExtractor {
 
     // the source image
     private int img[] = null;
@@ -60,16 +73,37 @@ public class BlobExtractor {
     private int labelIndex = 2;
     // counter for core processing of the image pixel
     private int coreProcessingCount = 0;
+    // counter for the label merges (replaced labels) of the image
+    private int mergeCount = 0;
+    // the first and last changed column of every row in the current pass
+    // (first > last for a row with no change)
+    private int changedMin[] = null;
+    private int changedMax[] = null;
+    // the same of the last pass
+    private int lastChangedMin[] = null;
+    private int lastChangedMax[] = null;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the budget of the current extraction, null if none
+    private ExtractionBudget budget = null;
+    // the no of pixels visited by the current extraction
+    private long visitedCount = 0;
+    // the timer of the phases of the current extraction
+    private ExtractionTimer timer = null;
+    // the no of blob pixels of the current image
+    private long foregroundCount = 0;
 
     /*
      * method to load new color values to the binary image
      */
     private void loadNewColorValues() {
+        foregroundCount = 0;
         // for all pixels in the image
         for (int i = 0; i < img.length; i++) {
             // if old blob color found then replace it with new blob color
             if (img[i] == BLOBCOLOR) {
                 img[i] = BLACK;
+                foregroundCount++;
             } // else replace it with new background color
             else {
                 img[i] = WHITE;
@@ -83,12 +117,31 @@ public class BlobExtractor {
      * detected blob images
      */
     public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage) {
+        return extractBlobs(sourceImage, null);
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked after every row of every pass and after every
+     * label merge (a scan of the whole image), an ExtractionAbortedException
+     * is thrown when it is cancelled or runs out
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ExtractionBudget budget) {
 
         // create a blob image list
         ArrayList<BufferedImage> blobList = null;
 
         // check whether the image is a valid image
         if (isValidImage(sourceImage)) {
+            // time the phases of the extraction
+            // the work done is checked against the budget
+            this.budget = budget;
+            visitedCount = 0;
+            mergeCount = 0;
+            timer = new ExtractionTimer(metrics, "level1", sourceImage.getWidth(), sourceImage.getHeight());
             // take the copy of the original image as int array
             // the type is set to int argb insted of the original imags byte binary as
             // durying processing pixel rgb values are to be replaced by the label values
@@ -99,29 +152,45 @@ public class BlobExtractor {
 
             sourceImage.getRGB(0, 0, w, h, img, 0, w);
 
-            System.out.println("Image Copied.");
+            timer.phaseCompleted(ExtractionMetrics.COPY);
 
             // now load new color values for the source image
             loadNewColorValues();
-            System.out.println("New color values set.");
+            timer.phaseCompleted(ExtractionMetrics.RECOLOR);
+            checkBudget();
+
+            // the labels and the counter start afresh for every image
+            // so the extractor can be reused for the next image
+            labelIndex = 2;
+            coreProcessingCount = 0;
+            mergeCount = 0;
+            // every pixel is changed before the first pass
+            initChangedColumns();
 
             // start labeling blobs
-            System.out.println("Labeling Started");
             // the no of pass counter
             int pass = 0;
             while (doLabeling()) {
                 pass++;
             }
-            System.out.println("Labeling Completed.");
-            System.out.println("Labeling Pass Count:" + pass);
-            System.out.println("Core processing count:" + coreProcessingCount);
+            timer.phaseCompleted(ExtractionMetrics.LABELING);
+            timer.labelingCompleted(pass, coreProcessingCount, mergeCount);
+
+            // get the labels of the blobs
+            ArrayList<Integer> labelList = getLabels();
+            timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
 
             // initialise the blob image array list
             blobList = new ArrayList<BufferedImage>();
             // for every labeled blob get the blob and load it onto the blobs list
-            for (Integer i : getLabels()) {
+            for (Integer i : labelList) {
                 blobList.add(getBlob(i));
+                // every blob is found by scanning the image
+                visitedCount += (long) w * h;
+                checkBudget();
             }
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), foregroundCount);
         }
         // return the blob list
         return blobList;
@@ -143,11 +212,35 @@ public class BlobExtractor {
                 labelList.add(img[i]);
             }
         }
-        System.out.println("Label List Size: " + labelList.size());
         // return the label list
         return labelList;
     }
 
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to check the budget of the current extraction, if any, with the
+     * work done so far
+     */
+    private void checkBudget() {
+        if (budget != null) {
+            budget.check(visitedCount, mergeCount);
+        }
+    }
+
     /*
      * method to check whether the inputed image is a valid image or not
      */
@@ -165,7 +258,6 @@ public class BlobExtractor {
             System.out.println("Error : Invalid Image! image should be binary image.");
             return false;
         }
-        System.out.println("Valid Image Input.");
         // if all the abouve conditions are satisfied then it is a valid image for blob extraction
         return true;
     }
@@ -241,12 +333,6 @@ public class BlobExtractor {
         // and if it is a vertical line then the width becomes zero
         width = width < 1 ? 1 : width;
         height = height < 1 ? 1 : height;
-
-        System.out.println("Blob Label :" + blobLabel);
-        System.out.println("x: " + x1);
-        System.out.println("y: " + y1);
-        System.out.println("w: " + width);
-        System.out.println("h: " + height);
         // return the blobs size (resolution)
         return new Rectangle(x1, y1, width, height);
     }
@@ -262,8 +348,6 @@ public class BlobExtractor {
         // blob image array
         int b[] = new int[blobSize.width * blobSize.height];
 
-        // blob pixel counter
-        int blobPixelCount = 0;
         // scan through every pixels for the specified lable
         for (int j = blobSize.y, y = 0; j < (blobSize.y + blobSize.height - 1); j++, y++) {
             for (int i = blobSize.x, x = 0; i < (blobSize.x + blobSize.width - 1); i++, x++) {
@@ -271,14 +355,11 @@ public class BlobExtractor {
                 if (img[i + (j * w)] == blobLabel) {
                     // set the blob pixel to blob color
                     b[x + (y * blobSize.width)] = BLOBCOLOR;
-                    // increment blob pixel counter
-                    blobPixelCount++;
                 } else {
                     b[x + (y * blobSize.width)] = BACKGROUNDCOLOR;
                 }
             }
         }
-        System.out.println("Blob Pixel Count:" + blobPixelCount);
 
         // create image buffer for blob with the blob size
         BufferedImage blob = new BufferedImage(blobSize.width, blobSize.height, BufferedImage.TYPE_BYTE_BINARY);
@@ -287,11 +368,89 @@ public class BlobExtractor {
         return blob;
     }
 
+    /*
+     * #OPTIMIZED
+     * method to mark every pixel as changed, for the first pass
+     */
+    private void initChangedColumns() {
+        if (changedMin == null || changedMin.length < h) {
+            changedMin = new int[h];
+            changedMax = new int[h];
+            lastChangedMin = new int[h];
+            lastChangedMax = new int[h];
+        }
+        for (int y = 0; y < h; y++) {
+            changedMin[y] = 0;
+            changedMax[y] = w - 1;
+        }
+    }
+
+    /*
+     * #OPTIMIZED
+     * method to start the change spans of a new pass
+     *
+     * the spans of the current pass become the spans of the last pass
+     */
+    private void startPass() {
+        int temp[] = lastChangedMin;
+        lastChangedMin = changedMin;
+        changedMin = temp;
+        temp = lastChangedMax;
+        lastChangedMax = changedMax;
+        changedMax = temp;
+        for (int y = 0; y < h; y++) {
+            changedMin[y] = w;
+            changedMax[y] = -1;
+        }
+    }
+
+    /*
+     * #OPTIMIZED
+     * method to mark the columns x1 to x2 of row y as changed
+     */
+    private void markChanged(int y, int x1, int x2) {
+        if (x1 < changedMin[y]) {
+            changedMin[y] = x1;
+        }
+        if (x2 > changedMax[y]) {
+            changedMax[y] = x2;
+        }
+    }
+
+    /*
+     * #OPTIMIZED
+     * method to get the first changed column of the rows y - 1 to y + 1
+     * in the last and the current pass
+     */
+    private int getChangedMin(int y) {
+        int min = w;
+        for (int i = y - 1; i <= y + 1; i++) {
+            min = Math.min(min, Math.min(changedMin[i], lastChangedMin[i]));
+        }
+        return min;
+    }
+
+    /*
+     * #OPTIMIZED
+     * method to get the last changed column of the rows y - 1 to y + 1
+     * in the last and the current pass
+     */
+    private int getChangedMax(int y) {
+        int max = -1;
+        for (int i = y - 1; i <= y + 1; i++) {
+            max = Math.max(max, Math.max(changedMax[i], lastChangedMax[i]));
+        }
+        return max;
+    }
+
     /*
      * method which does the labeling process on the image
      *
      * returns false if no labeling is done on any pixel int the image
      * which indicates all blobs are labeled completly
+     *
+     * #OPTIMIZED
+     * only the kernels within 1 column of a change in their rows are visited
      */
     private boolean doLabeling() {
 
@@ -300,9 +459,14 @@ public class BlobExtractor {
         // temporary label
         int tempLabel = 0;
 
-        // scan through every pixels of the image for the specified lable
+        startPass();
+        // scan through the changed pixels of the image for the specified lable
         for (int y = 1; y < h - 1; y++) {
-            for (int x = 1; x < w - 1; x++) {
+            // the kernels to visit in the row
+            // a change made while visiting the row can only widen the span
+            int xStart = Math.max(getChangedMin(y) - 1, 1);
+            int xEnd = Math.min(getChangedMax(y) + 1, w - 2);
+            for (int x = xStart; x <= xEnd; x++) {
                 // on fining a pixel with color other than white
                 // and if all the adjacent pixels are not the same
                 if (img[x + (y * w)] > WHITE && !isAllKernelPixelsSame(x, y)) {
@@ -311,6 +475,10 @@ public class BlobExtractor {
                     if (doesAdjacentPixelsHaveLabel(x, y)) {
                         // if so then get the smallest weight adjacent label
                         tempLabel = getSmallestWeightedLabelFromKernel(x, y);
+                    } else if (img[x + (y * w)] > BLACK) {
+                        // an isolated pixel which is already labeled keeps its label
+                        // else it would get a new label on every pass without end
+                        tempLabel = img[x + (y * w)];
                     } else {
                         // if note set temp label to the label index
                         tempLabel = labelIndex;
@@ -322,9 +490,19 @@ public class BlobExtractor {
                     if (labelKernelPixels(x, y, tempLabel) > 0) {
                         // if any pixel is labled then set pixel labeling flag as true;
                         labelingDoneOnAnyPixel = true;
+                        // the kernel pixels are changed
+                        markChanged(y - 1, x - 1, x + 1);
+                        markChanged(y, x - 1, x + 1);
+                        markChanged(y + 1, x - 1, x + 1);
+                        // a replaced label may have widened the span of the row
+                        xEnd = Math.min(getChangedMax(y) + 1, w - 2);
                     }
                 }
             }
+            if (xEnd >= xStart) {
+                visitedCount += xEnd - xStart + 1;
+            }
+            checkBudget();
         }
 
         // return the pixel labeling flag
@@ -509,12 +687,23 @@ public class BlobExtractor {
      * method to replace all occurance of the old label with the new one
      */
     private void replaceLabel(int oldLabel, int newLabel) {
-        for (int i = 0; i < img.length; i++) {
-            // if old label found
-            if (img[i] == oldLabel) {
-                // replace it with the new label
-                img[i] = newLabel;
+        mergeCount++;
+        long start = timer.mergeStarted();
+        long replaced = 0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0, i = y * w; x < w; x++, i++) {
+                // if old label found
+                if (img[i] == oldLabel) {
+                    // replace it with the new label
+                    img[i] = newLabel;
+                    replaced++;
+                    // #OPTIMIZED the replaced pixel is changed
+                    markChanged(y, x, x);
+                }
             }
         }
+        timer.mergeCompleted(start, oldLabel, newLabel, replaced);
+        visitedCount += img.length;
+        checkBudget();
     }
 }
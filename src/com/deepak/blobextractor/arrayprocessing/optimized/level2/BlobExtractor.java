@@ -0,0 +1,1014 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.arrayprocessing.optimized.level2;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobFilter;
+import com.deepak.blobextractor.BlobSource;
+import com.deepak.blobextractor.BlobStatistics;
+import com.deepak.blobextractor.ExtractionAbortedException;
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ExtractionTimer;
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.BinaryImage;
+import com.deepak.blobextractor.PackedBinaryImage;
+import com.deepak.blobextractor.ThresholdPolicy;
+import com.deepak.blobextractor.streaming.BlobListener;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides methods for blob extraction from an binary image
+ *
+ * blob extraction based on the classic two pass labeling process
+ * with an union-find equivalence table
+ *
+ * first pass  : every blob pixel gets a provisional label from its already
+ *               visited neighbours (west, north west, north, north east)
+ *               and touching labels are recorded as equivalent
+ * second pass : every provisional label is replaced by the final label of
+ *               its equivalence class
+ *
+ * the whole image is visited exactly twice irrespective of the blob shapes,
+ * so there is no repeated labeling pass or label replacement scan as in the
+ * kernel based labeling process of the level1 blob extractor
+ *
+ * the blob statistics (bounding box, pixel count, first pixel and centroid)
+ * are collected durying the second pass, so the blob images are cropped
+ * directly from the known bounding boxes without any further image scan
+ *
+ * the source image is read as packed bits (see PackedBinaryImage) and the
+ * first pass walks the runs of blob pixels, so the source image is never
+ * expanded to an int per pixel and the background is skipped a byte at a time
+ *
+ * with a threshold policy set a gray or color image is thresholded on the fly
+ * while the first pass reads it (see ThresholdedImage), so no binary copy of
+ * the image is made
+ *
+ * when the parallelism is more than 1 the image is split into horizontal
+ * strips which are labeled in parallel on a fork/join pool, each strip with
+ * its own equivalence table (label range). the blobs crossing the strip
+ * borders are then merged and the strips are relabeled in parallel; the
+ * result is the same as that of the sequential extraction
+ *
+ * the label buffer is indexed by long offsets; the images with more pixels
+ * than the off heap threshold (by default the ones too large for a java
+ * array) are labeled onto a memory mapped temporary file instead of the java
+ * heap, which is released by close()
+ */
+public class BlobExtractor implements ImageBlobExtractor, Closeable {
+
+    // the label buffer (label of every pixel of the source image)
+    private LabelBuffer labels = null;
+    private int w = 0;
+    private int h = 0;
+    // the blob colour in image
+    public static final int BLOBCOLOR = Color.black.getRGB();
+    // the background color in image
+    public static final int BACKGROUNDCOLOR = Color.white.getRGB();
+    // the label of the background pixels
+    // the blob labels starts from 1
+    private static final int WHITE = 0;
+    // the minimum no of rows of a strip
+    // smaller strips are not worth the border merging
+    private static final int MINIMUM_STRIP_ROWS = 64;
+    // the no of strips per thread
+    // more strips than threads keeps all threads busy when some strips are slower
+    private static final int STRIPS_PER_THREAD = 4;
+    // the no of threads used for labeling
+    private int parallelism = 1;
+    // the fork/join pool for the parallel labeling
+    private ForkJoinPool pool = null;
+    // the strips of the image
+    private Strip strips[] = null;
+    // the no of blobs (final labels) found
+    private int blobCount = 0;
+    // the statistics of the blobs found
+    private BlobStatistics blobStatistics = null;
+    // the filter of the blobs to be kept, null for all blobs
+    private BlobFilter blobFilter = null;
+    // the no of pixels above which the label buffer is kept off the java heap
+    private long offHeapThreshold = LabelBuffer.MAXIMUM_ARRAY_SIZE;
+    // the off heap label buffers to be released on close
+    private ArrayList<LabelBuffer> offHeapBuffers = new ArrayList<LabelBuffer>();
+    // the label buffer kept for the next extraction which hands out no blob handles
+    private LabelBuffer spareLabels = null;
+    // the merged equivalence table of the strips, kept for the next extraction
+    private EquivalenceTable mergedTable = null;
+    // whether the blob statistics are refilled by the next extraction
+    // instead of new statistics being created
+    private boolean reuseStatistics = false;
+    // the threshold policy for the gray and color images, null for binary images only
+    private ThresholdPolicy thresholdPolicy = null;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the timer of the phases of the last extraction
+    private ExtractionTimer timer = null;
+    // the budget of the current extraction, null if none
+    private ExtractionBudget budget = null;
+    // the no of pixels visited by the current extraction
+    // the strips add their rows to it in parallel
+    private AtomicLong visitedCount = new AtomicLong();
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs an arraylist of
+     * detected blob images
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage) {
+
+        // create a blob image list
+        ArrayList<BufferedImage> blobList = null;
+
+        // get the blob handles and draw the image of every blob
+        // no blob handle is returned, so the spare label buffer is used
+        ArrayList<Blob> blobs = extract(sourceImage, true);
+        if (blobs != null) {
+            blobList = new ArrayList<BufferedImage>(blobs.size());
+            for (Blob blob : blobs) {
+                blobList.add(blob.getImage());
+            }
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), blobStatistics);
+            // the label buffer is no longer needed as no blob handle is returned
+            // it is kept as the spare label buffer before an off heap label
+            // buffer is released, which is never kept
+            keepSpareLabels();
+            releaseLabels(labels);
+        }
+        // return the blob list
+        return blobList;
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked after every row of both the passes of every strip,
+     * the merges of the strips running in parallel are checked once they are
+     * merged. an ExtractionAbortedException is thrown when it is cancelled or
+     * runs out
+     *
+     * the label buffer of an aborted extraction is released right away, as
+     * no blob handle is returned; else an off heap label buffer and its file
+     * would be kept till close()
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ExtractionBudget budget) {
+        this.budget = budget;
+        try {
+            return extractBlobs(sourceImage);
+        } catch (ExtractionAbortedException e) {
+            // the label buffer is set before the budget is first checked
+            // so it is the label buffer of the aborted extraction
+            releaseLabels(labels);
+            throw e;
+        } finally {
+            this.budget = null;
+        }
+    }
+
+    /*
+     * method to extract all blobs from an image
+     * has the source image as parameter and outputs an arraylist of
+     * handles of the detected blobs
+     *
+     * a blob handle holds the label, bounding box and pixel count of the blob,
+     * the blob image is drawn from the label buffer only when it is asked for
+     */
+    public ArrayList<Blob> extract(BufferedImage sourceImage) {
+        ArrayList<Blob> blobList = extract(sourceImage, false);
+        if (blobList != null) {
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), blobStatistics);
+        }
+        return blobList;
+    }
+
+    /*
+     * method to extract all blobs from an image and to give them to a listener
+     * has the source image and the blob listener as parameters and outputs
+     * false if the image is not a valid image
+     *
+     * the image is labeled onto the spare label buffer, so no label buffer is
+     * allocated once it is large enough. the blob handles are valid only till
+     * the listener returns, a blob to be kept should be materialized (see
+     * Blob.materialize()) by the listener
+     */
+    public boolean extract(BufferedImage sourceImage, BlobListener listener) {
+        ArrayList<Blob> blobs = extract(sourceImage, true);
+        if (blobs == null) {
+            return false;
+        }
+        try {
+            for (Blob blob : blobs) {
+                listener.blobExtracted(blob);
+            }
+        } finally {
+            // the label buffer is no longer needed once the listener has the blobs
+            keepSpareLabels();
+            releaseLabels(labels);
+        }
+        timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+        timer.extractionCompleted(blobs.size(), blobStatistics);
+        return true;
+    }
+
+    /*
+     * method to extract all blobs from an image
+     *
+     * the image is labeled onto the spare label buffer if it is to be reused,
+     * that is if the blob handles are not given out
+     */
+    private ArrayList<Blob> extract(BufferedImage sourceImage, boolean reuseLabels) {
+
+        // create a blob list
+        ArrayList<Blob> blobList = null;
+
+        // check whether the image is a valid image
+        if (isValidImage(sourceImage)) {
+            // label the image onto a new label buffer
+            // as the blob handles keeps a reference to it
+            labelImage(sourceImage, reuseLabels ? getSpareLabels(sourceImage) : null);
+
+            // initialise the blob array list
+            blobList = new ArrayList<Blob>(blobCount);
+            // the blobs are drawn from the label buffer of this extraction
+            BlobSource source = new LabelBufferSource(labels, w);
+            // for every labeled blob create the blob handle and load it onto the blobs list
+            // the final labels are consecutive from 1 and are in the order
+            // in which the blobs are first met while scanning the image
+            // the blobs rejected by the blob filter are skipped
+            for (int i = 1; i <= blobCount; i++) {
+                if (blobFilter != null && !blobFilter.accept(blobStatistics, i, w, h)) {
+                    continue;
+                }
+                blobList.add(new Blob(i, blobStatistics.getX(i), blobStatistics.getY(i),
+                        blobStatistics.getWidth(i), blobStatistics.getHeight(i), blobStatistics.getArea(i), source));
+            }
+        }
+        // return the blob list
+        return blobList;
+    }
+
+    /*
+     * method to label an image onto a label map
+     * has the source image and the label map as parameters and outputs the
+     * label map, or null if the image is not a valid image
+     *
+     * the label map has the label of every pixel (x, y) at index x + y * width,
+     * 0 for the background and the consecutive blob labels 1 to blob count in
+     * the order in which the blobs are first met while scanning the image.
+     * the statistics of the blobs labeled are given by getBlobStatistics()
+     * and all the blobs are labeled irrespective of the blob filter
+     *
+     * the given label map is used if it has at least width * height elements
+     * so the same array can be reused for every image, else (or if it is null)
+     * a new label map is created
+     */
+    public int[] extractLabels(BufferedImage sourceImage, int labelMap[]) {
+        // check whether the image is a valid image
+        if (!isValidImage(sourceImage)) {
+            return null;
+        }
+        // get the label map
+        // all pixels are initially background
+        long size = (long) sourceImage.getWidth() * sourceImage.getHeight();
+        if (size > LabelBuffer.MAXIMUM_ARRAY_SIZE) {
+            throw new IllegalArgumentException("image is too large for an int[] label map");
+        }
+        if (labelMap != null && labelMap.length >= size) {
+            Arrays.fill(labelMap, 0, (int) size, WHITE);
+        } else {
+            labelMap = new int[(int) size];
+        }
+        labelImage(sourceImage, LabelBuffer.wrap(labelMap));
+        timer.extractionCompleted(blobCount, blobStatistics);
+        // return the label map
+        return labelMap;
+    }
+
+    /*
+     * method to label an image onto the spare label buffer
+     * has the source image as parameter and outputs the statistics of all the
+     * blobs, or null if the image is not a valid image
+     *
+     * used by the concurrent blob extractor, which copies the statistics
+     * before the extractor is used again
+     */
+    BlobStatistics extractStatistics(BufferedImage sourceImage) {
+        // check whether the image is a valid image
+        if (!isValidImage(sourceImage)) {
+            return null;
+        }
+        labelImage(sourceImage, getSpareLabels(sourceImage));
+        keepSpareLabels();
+        timer.extractionCompleted(blobCount, blobStatistics);
+        return blobStatistics;
+    }
+
+    /*
+     * method to get the spare label buffer cleared for the specified image
+     *
+     * returns null if there is no spare label buffer large enough, or if the
+     * image is to be labeled off heap
+     */
+    private LabelBuffer getSpareLabels(BufferedImage sourceImage) {
+        long size = (long) sourceImage.getWidth() * sourceImage.getHeight();
+        if (spareLabels == null || spareLabels.size < size || size > offHeapThreshold) {
+            return null;
+        }
+        // all pixels are initially background
+        spareLabels.fill(0, size, WHITE);
+        return spareLabels;
+    }
+
+    /*
+     * method to keep the label buffer of the last extraction as the spare label buffer
+     *
+     * the larger label buffer is kept, a promoted label buffer replaces the
+     * spare label buffer it is promoted from. an off heap label buffer is
+     * never kept, so it must be called before the label buffer is released
+     */
+    private void keepSpareLabels() {
+        if (!offHeapBuffers.contains(labels) && (spareLabels == null || labels.size >= spareLabels.size)) {
+            spareLabels = labels;
+        }
+    }
+
+    /*
+     * method to set whether the blob statistics are refilled by the next
+     * extraction instead of new statistics being created
+     *
+     * the statistics returned by getBlobStatistics() are then valid only till
+     * the next extraction
+     */
+    void setReuseStatistics(boolean reuseStatistics) {
+        this.reuseStatistics = reuseStatistics;
+    }
+
+    /*
+     * method to label an image
+     *
+     * the image is labeled onto the given label buffer, or if it is null onto
+     * a new label buffer of the narrowest width, which is promoted to a wider
+     * one as more labels are needed. a large image is labeled onto a new off
+     * heap label buffer
+     */
+    private void labelImage(BufferedImage sourceImage, LabelBuffer labelBuffer) {
+        w = sourceImage.getWidth();
+        h = sourceImage.getHeight();
+        // time the phases of the extraction
+        timer = new ExtractionTimer(metrics, "level2", w, h);
+        // get the binary view of the source image
+        // the blob pixels are read from it durying the first pass
+        // the threshold policies of Otsu and of the adaptive threshold read
+        // the whole image once more here, so it is timed as the copy
+        BinaryImage packedImage = thresholdPolicy != null
+                ? thresholdPolicy.apply(sourceImage) : new PackedBinaryImage(sourceImage);
+        timer.phaseCompleted(ExtractionMetrics.COPY);
+
+        // get the label buffer
+        // all pixels are initially background
+        long size = (long) w * h;
+        if (labelBuffer != null) {
+            labels = labelBuffer;
+        } else if (size > offHeapThreshold) {
+            try {
+                labels = LabelBuffer.map(size, null);
+            } catch (IOException e) {
+                throw new IllegalStateException("could not create the off heap label buffer", e);
+            }
+            offHeapBuffers.add(labels);
+        } else {
+            labels = LabelBuffer.create(size);
+        }
+
+        // start labeling blobs
+        visitedCount.set(0);
+        checkBudget(0, 0);
+        createStrips();
+        runStrips(strips, packedImage);
+        promoteOverflowedStrips(packedImage);
+        mergeStrips();
+        checkBudget(0, getMergeCount());
+        // the label buffer should be able to hold the final labels too
+        while (blobCount > labels.getMaxLabel()) {
+            labels = labels.promote();
+        }
+        runStrips(strips, null);
+        timer.phaseCompleted(ExtractionMetrics.LABELING);
+        // the first and the second pass
+        timer.labelingCompleted(2, 0, getMergeCount());
+        collectStatistics();
+        timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
+    }
+
+    /*
+     * method to check the budget of the current extraction, if any, after
+     * the specified no of pixels are visited
+     *
+     * the merges are the merges known to the caller, that is of its own strip
+     * durying the passes and of all the strips once they are merged
+     */
+    private void checkBudget(int pixelCount, long mergeCount) {
+        if (budget != null) {
+            budget.check(visitedCount.addAndGet(pixelCount), mergeCount);
+        }
+    }
+
+    /*
+     * method to get the no of label merges of the strips and of their borders
+     */
+    private long getMergeCount() {
+        long mergeCount = strips.length > 1 ? mergedTable.getMergeCount() : 0;
+        for (Strip strip : strips) {
+            mergeCount += strip.table.getMergeCount();
+        }
+        return mergeCount;
+    }
+
+    /*
+     * method to get the no of bits per label (8, 16 or 32) of the label buffer
+     * used by the last extraction
+     *
+     * the label buffer starts with a byte per pixel and is promoted to wider
+     * labels only as more labels are needed
+     */
+    public int getLabelBits() {
+        return labels.getBits();
+    }
+
+    /*
+     * method to get the statistics of the blobs found by the last extraction
+     *
+     * the statistics are of all the blobs found including the ones rejected by
+     * the blob filter; the blob with label i is the blob handle with label i
+     */
+    public BlobStatistics getBlobStatistics() {
+        return blobStatistics;
+    }
+
+    /*
+     * method to set the filter of the blobs to be kept, null (the default) for all blobs
+     *
+     * the filter is checked before any blob handle or blob image is created
+     */
+    public void setBlobFilter(BlobFilter blobFilter) {
+        this.blobFilter = blobFilter;
+    }
+
+    /*
+     * method to get the filter of the blobs to be kept
+     */
+    public BlobFilter getBlobFilter() {
+        return blobFilter;
+    }
+
+    /*
+     * method to set the no of pixels above which an image is labeled onto an
+     * off heap (memory mapped temporary file) label buffer
+     *
+     * by default only the images too large for a java array are labeled off heap
+     */
+    public void setOffHeapThreshold(long offHeapThreshold) {
+        if (offHeapThreshold < 0 || offHeapThreshold > LabelBuffer.MAXIMUM_ARRAY_SIZE) {
+            throw new IllegalArgumentException("off heap threshold should be from 0 to " + LabelBuffer.MAXIMUM_ARRAY_SIZE);
+        }
+        this.offHeapThreshold = offHeapThreshold;
+    }
+
+    /*
+     * method to get the no of pixels above which an image is labeled off heap
+     */
+    public long getOffHeapThreshold() {
+        return offHeapThreshold;
+    }
+
+    /*
+     * method to release the off heap label buffers of all the extractions
+     *
+     * the blob handles of an extraction labeled off heap are no longer valid
+     * after close, the extractor itself can still be used
+     */
+    public void close() {
+        for (LabelBuffer labelBuffer : offHeapBuffers) {
+            labelBuffer.release();
+        }
+        offHeapBuffers.clear();
+    }
+
+    /*
+     * method to hand the label buffer of the last extraction over to its
+     * blob handles
+     *
+     * an off heap label buffer is then no longer released by close(), it is
+     * unmapped when the blob handles are garbage collected and its file is
+     * deleted when the java virtual machine exits
+     */
+    void detachLabels() {
+        offHeapBuffers.remove(labels);
+    }
+
+    /*
+     * method to release a label buffer if it is off heap
+     */
+    private void releaseLabels(LabelBuffer labelBuffer) {
+        if (offHeapBuffers.remove(labelBuffer)) {
+            labelBuffer.release();
+        }
+    }
+
+    /*
+     * method to set the threshold policy by which the gray and color images
+     * are turned into binary images while they are labeled
+     *
+     * null (the default) accepts the binary images only
+     */
+    public void setThresholdPolicy(ThresholdPolicy thresholdPolicy) {
+        this.thresholdPolicy = thresholdPolicy;
+    }
+
+    /*
+     * method to get the threshold policy, null if only binary images are accepted
+     */
+    public ThresholdPolicy getThresholdPolicy() {
+        return thresholdPolicy;
+    }
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to set the no of threads used for labeling
+     *
+     * 1 (the default) labels the image sequentially on the calling thread
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be at least 1");
+        }
+        if (pool != null && pool.getParallelism() != parallelism) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /*
+     * method to get the no of threads used for labeling
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /*
+     * method to check whether the inputed image is a valid image or not
+     */
+    public boolean isValidImage(BufferedImage img) {
+        // the image should not be null
+        if (img == null) {
+            System.out.println("Error : Invalid Image! null image.");
+            return false;
+        } // the image resolution should not be less than 9x9
+        else if (img.getWidth() < 9 || img.getHeight() < 9) {
+            System.out.println("Error : Invalid Image! minimum image resolution should be 9X9.");
+            return false;
+        } // the image should be of type byte binary unless a threshold policy is set
+        else if (thresholdPolicy == null && img.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            System.out.println("Error : Invalid Image! image should be binary image.");
+            return false;
+        }
+        // if all the abouve conditions are satisfied then it is a valid image for blob extraction
+        return true;
+    }
+
+    /*
+     * method to split the image into strips
+     *
+     * a single strip is used for the sequential labeling and for small images.
+     * the strips of the last extraction are reused if there are as many
+     */
+    private void createStrips() {
+        int stripCount = Math.min(parallelism * STRIPS_PER_THREAD, h / MINIMUM_STRIP_ROWS);
+        stripCount = parallelism > 1 && stripCount > 1 ? stripCount : 1;
+        boolean reuseStrips = strips != null && strips.length == stripCount;
+        if (!reuseStrips) {
+            strips = new Strip[stripCount];
+        }
+        for (int i = 0; i < stripCount; i++) {
+            int rowStart = (int) ((long) h * i / stripCount);
+            int rowEnd = (int) ((long) h * (i + 1) / stripCount);
+            if (reuseStrips) {
+                strips[i].reset(rowStart, rowEnd);
+            } else {
+                strips[i] = new Strip(rowStart, rowEnd);
+            }
+        }
+    }
+
+    /*
+     * method to run the first pass (if the packed image is given) or the
+     * second pass on the specified strips
+     */
+    private void runStrips(Strip stripList[], BinaryImage packedImage) {
+        if (stripList.length == 1) {
+            // label a single strip on the calling thread
+            if (packedImage != null) {
+                doFirstPass(packedImage, stripList[0]);
+            } else {
+                doSecondPass(stripList[0]);
+            }
+        } else {
+            if (pool == null) {
+                pool = new ForkJoinPool(parallelism);
+            }
+            pool.invoke(new StripTask(stripList, packedImage, 0, stripList.length));
+        }
+    }
+
+    /*
+     * method to relabel the strips which ran out of labels durying the first pass
+     *
+     * when the strips are labeled in parallel the label buffer can not be promoted
+     * in the middle of the first pass, so a strip running out of labels stops;
+     * the label buffer is then promoted and the strip is labeled again
+     */
+    private void promoteOverflowedStrips(BinaryImage packedImage) {
+        while (true) {
+            // find the strips which ran out of labels
+            ArrayList<Strip> overflowedStrips = new ArrayList<Strip>();
+            for (Strip strip : strips) {
+                if (strip.overflowed) {
+                    overflowedStrips.add(strip);
+                }
+            }
+            if (overflowedStrips.isEmpty()) {
+                return;
+            }
+            labels = labels.promote();
+            // reset the strips and label them again
+            for (Strip strip : overflowedStrips) {
+                labels.fill((long) strip.rowStart * w, (long) strip.rowEnd * w, WHITE);
+                strip.reset(strip.rowStart, strip.rowEnd);
+            }
+            runStrips(overflowedStrips.toArray(new Strip[overflowedStrips.size()]), packedImage);
+        }
+    }
+
+    /*
+     * the fork/join task which labels a range of strips
+     *
+     * the range is split in halves till a single strip is left
+     */
+    private class StripTask extends RecursiveAction {
+
+        // the version of the serialized form
+        private static final long serialVersionUID = 1L;
+        // the strips to be labeled
+        private Strip stripList[] = null;
+        // the packed image for the first pass, null for the second pass
+        private BinaryImage packedImage = null;
+        // the strips of the task (from to to - 1)
+        private int from = 0;
+        private int to = 0;
+
+        StripTask(Strip stripList[], BinaryImage packedImage, int from, int to) {
+            this.stripList = stripList;
+            this.packedImage = packedImage;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected void compute() {
+            if (to - from == 1) {
+                if (packedImage != null) {
+                    doFirstPass(packedImage, stripList[from]);
+                } else {
+                    doSecondPass(stripList[from]);
+                }
+            } else {
+                int middle = (from + to) / 2;
+                invokeAll(new StripTask(stripList, packedImage, from, middle),
+                        new StripTask(stripList, packedImage, middle, to));
+            }
+        }
+    }
+
+    /*
+     * method which does the first labeling pass on a strip of the image
+     *
+     * only the west, north west, north and north east neighbours are checked
+     * as they are the only neighbours of the 3x3 kernel already visited;
+     * the neighbours in the rows above the strip are treated as background
+     * and are merged later on by mergeStrips()
+     *
+     * the blob pixels of a row are visited as runs, within a run the west
+     * neighbour is always a blob pixel
+     */
+    private void doFirstPass(BinaryImage packedImage, Strip strip) {
+        EquivalenceTable table = strip.table;
+        LabelBuffer labels = this.labels;
+
+        for (int y = strip.rowStart; y < strip.rowEnd; y++) {
+            // the offset of the current and the previous row
+            long row = (long) y * w;
+            long prevRow = row - w;
+            // whether the previous row is in the strip
+            boolean hasPrevRow = y > strip.rowStart;
+            // for every run of blob pixels in the row
+            int x = packedImage.nextBlobPixel(0, y);
+            while (x < w) {
+                int runEnd = packedImage.nextBackgroundPixel(x, y);
+
+                // the first pixel of the run has a background west neighbour
+                // a neighbour outside the strip is treated as background
+                int n = hasPrevRow ? labels.get(prevRow + x) : WHITE;
+                int nw = (x > 0 && hasPrevRow) ? labels.get(prevRow + x - 1) : WHITE;
+                int ne = (x < w - 1 && hasPrevRow) ? labels.get(prevRow + x + 1) : WHITE;
+                if (n != WHITE) {
+                    // the north neighbour touches all the other visited neighbours
+                    // so they are already in its equivalence class
+                    labels.set(row + x, n);
+                } else if (nw != WHITE) {
+                    labels.set(row + x, nw);
+                    if (ne != WHITE) {
+                        table.union(nw, ne);
+                    }
+                } else if (ne != WHITE) {
+                    labels.set(row + x, ne);
+                } else {
+                    // no labeled neighbour found, so start a new label
+                    int label = table.newLabel();
+                    if (label > labels.getMaxLabel()) {
+                        // the label buffer is full
+                        if (strips.length > 1) {
+                            // the other strips are using the label buffer,
+                            // so stop here and label the strip again later
+                            strip.overflowed = true;
+                            return;
+                        }
+                        // promote the label buffer and go on
+                        this.labels = labels.promote();
+                        labels = this.labels;
+                    }
+                    labels.set(row + x, label);
+                }
+
+                // the rest of the run
+                for (x++; x < runEnd; x++) {
+                    int west = labels.get(row + x - 1);
+                    n = hasPrevRow ? labels.get(prevRow + x) : WHITE;
+                    if (n != WHITE) {
+                        labels.set(row + x, n);
+                    } else {
+                        // the north west neighbour touches the west neighbour
+                        // so only the north east neighbour has to be merged
+                        labels.set(row + x, west);
+                        ne = (x < w - 1 && hasPrevRow) ? labels.get(prevRow + x + 1) : WHITE;
+                        if (ne != WHITE) {
+                            table.union(west, ne);
+                        }
+                    }
+                }
+
+                // the next run
+                x = packedImage.nextBlobPixel(runEnd, y);
+            }
+            checkBudget(w, table.getMergeCount());
+        }
+
+        // resolve the local final labels of the strip
+        strip.blobCount = table.flatten();
+    }
+
+    /*
+     * method to merge the blobs crossing the strip borders
+     *
+     * the local final labels of all strips are placed one after the other in
+     * a merged equivalence table and the labels of every pair of touching
+     * pixels across a strip border are marked as equivalent; flattening it
+     * gives the global labels
+     */
+    private void mergeStrips() {
+        if (strips.length == 1) {
+            // no borders, the local labels are the global labels
+            Strip strip = strips[0];
+            blobCount = strip.blobCount;
+            strip.globalLabel = getGlobalLabelArray(strip);
+            for (int i = 1; i <= blobCount; i++) {
+                strip.globalLabel[i] = i;
+            }
+            return;
+        }
+
+        // place the local labels of the strips one after the other
+        int labelCount = 0;
+        for (Strip strip : strips) {
+            strip.labelOffset = labelCount;
+            labelCount += strip.blobCount;
+        }
+        if (mergedTable == null) {
+            mergedTable = new EquivalenceTable(labelCount);
+        } else {
+            mergedTable.reset(labelCount);
+        }
+
+        // merge the touching pixels of the last row of a strip
+        // and the first row of the next strip
+        for (int i = 1; i < strips.length; i++) {
+            Strip upper = strips[i - 1];
+            Strip lower = strips[i];
+            long row = (long) lower.rowStart * w;
+            long prevRow = row - w;
+            for (int x = 0; x < w; x++) {
+                if (labels.get(row + x) == WHITE) {
+                    continue;
+                }
+                int label = lower.labelOffset + lower.table.get(labels.get(row + x));
+                // the north west, north and north east neighbours
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (x + dx >= 0 && x + dx < w && labels.get(prevRow + x + dx) != WHITE) {
+                        mergedTable.union(label, upper.labelOffset + upper.table.get(labels.get(prevRow + x + dx)));
+                    }
+                }
+            }
+        }
+
+        // as the strips are in the scanning order and the local labels are in the
+        // order of the blobs first met in a strip, the smallest merged label of
+        // a blob is the one of the strip part where the blob is first met.
+        // so the global labels are also in the order of the blobs first met
+        blobCount = mergedTable.flatten();
+        for (Strip strip : strips) {
+            strip.globalLabel = getGlobalLabelArray(strip);
+            for (int j = 1; j <= strip.blobCount; j++) {
+                strip.globalLabel[j] = mergedTable.get(strip.labelOffset + j);
+            }
+        }
+    }
+
+    /*
+     * method to get the global label array of a strip, reusing the array of
+     * the last extraction if it is large enough
+     */
+    private int[] getGlobalLabelArray(Strip strip) {
+        if (strip.globalLabel != null && strip.globalLabel.length >= strip.blobCount + 1) {
+            return strip.globalLabel;
+        }
+        return new int[strip.blobCount + 1];
+    }
+
+    /*
+     * method which does the second labeling pass on a strip of the image
+     *
+     * replaces every provisional label with the global final label of its class
+     * and collects the blob statistics of the strip on the way
+     */
+    private void doSecondPass(Strip strip) {
+        EquivalenceTable table = strip.table;
+        LabelBuffer labels = this.labels;
+        // the statistics are collected by the local labels
+        // as the strips are relabeled in parallel
+        // the statistics of a single strip are the blob statistics, so
+        // they are refilled only if the blob statistics are to be reused
+        BlobStatistics statistics = strip.blobStatistics;
+        if (statistics != null && (strips.length > 1 || reuseStatistics)) {
+            statistics.reset(strip.blobCount);
+        } else {
+            statistics = new BlobStatistics(strip.blobCount);
+        }
+
+        // relabel the image with the final labels
+        // same labeled pixels of a row are taken together as a run
+        // so the statistics are updated once per run and not once per pixel
+        for (int y = strip.rowStart; y < strip.rowEnd; y++) {
+            long row = (long) y * w;
+            int x = 0;
+            while (x < w) {
+                // the background stays as 0 as the label 0 is never set
+                int label = table.get(labels.get(row + x));
+                if (label == WHITE) {
+                    x++;
+                    continue;
+                }
+                int globalLabel = strip.globalLabel[label];
+                labels.set(row + x, globalLabel);
+                // find the end of the run
+                int start = x;
+                x++;
+                while (x < w && table.get(labels.get(row + x)) == label) {
+                    labels.set(row + x, globalLabel);
+                    x++;
+                }
+                statistics.addRun(label, y, start, x - 1);
+            }
+            checkBudget(w, 0);
+        }
+        strip.blobStatistics = statistics;
+    }
+
+    /*
+     * method to collect the blob statistics of all the strips
+     */
+    private void collectStatistics() {
+        if (strips.length == 1) {
+            // the local labels are the global labels
+            blobStatistics = strips[0].blobStatistics;
+        } else {
+            if (reuseStatistics && blobStatistics != null) {
+                blobStatistics.reset(blobCount);
+            } else {
+                blobStatistics = new BlobStatistics(blobCount);
+            }
+            for (Strip strip : strips) {
+                for (int i = 1; i <= strip.blobCount; i++) {
+                    blobStatistics.addStatistics(strip.globalLabel[i], strip.blobStatistics, i);
+                }
+            }
+        }
+    }
+
+    /*
+     * the blob source which draws the blobs from a label buffer
+     *
+     * it holds the label buffer of a single extraction, so the blob handles
+     * stay valid after the next extraction (till close for an off heap buffer)
+     */
+    private static class LabelBufferSource implements BlobSource {
+
+        // the label buffer and its width
+        private LabelBuffer labels = null;
+        private int w = 0;
+
+        LabelBufferSource(LabelBuffer labels, int w) {
+            this.labels = labels;
+            this.w = w;
+        }
+
+        /*
+         * method to draw the blob from the labels of its bounding box
+         */
+        public void drawBlob(Blob blob, byte bitmap[]) {
+            int label = blob.getLabel();
+            int stride = (blob.getWidth() + 7) / 8;
+            // scan through the pixels of the blob bounding box for the blob lable
+            for (int j = blob.getY(), y = 0; y < blob.getHeight(); j++, y++) {
+                long row = (long) j * w + blob.getX();
+                for (int x = 0; x < blob.getWidth(); x++) {
+                    // on finding a pixel with the blob label set its bit
+                    if (labels.get(row + x) == label) {
+                        bitmap[y * stride + (x >> 3)] |= 0x80 >> (x & 7);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.arrayprocessing.optimized.level2;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobFilter;
+import com.deepak.blobextractor.BlobStatistics;
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.ThresholdPolicy;
+import com.deepak.blobextractor.streaming.BlobListener;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides thread safe methods for blob extraction from an
+ * binary image, for a single instance to be shared by many threads
+ *
+ * the per image state (label buffer, equivalence tables, blob statistics)
+ * is held by workspaces, each a level2 blob extractor of its own. a call takes
+ * an idle workspace from the pool (or creates one if there is none), labels
+ * the image with it and gives it back, so a workspace is never used by two
+ * threads at a time
+ *
+ * a workspace keeps its buffers for the next image, grown to the largest
+ * image it has labeled, so once the pool is warmed up labeling an image
+ * allocates almost nothing apart from the results. a workspace which has
+ * labeled an image larger than the maximum workspace size is not kept, so a
+ * single large image does not hold on to its memory. the off heap label
+ * buffers of a workspace are released whenever it is given back
+ */
+public class ConcurrentBlobExtractor implements ImageBlobExtractor {
+
+    // the default maximum no of pixels of an image whose workspace is kept
+    private static final long DEFAULT_MAXIMUM_WORKSPACE_PIXELS = 16L * 1024 * 1024;
+    // the idle workspaces
+    private final ConcurrentLinkedQueue<BlobExtractor> workspaces = new ConcurrentLinkedQueue<BlobExtractor>();
+    // the no of idle workspaces
+    private final AtomicInteger idleCount = new AtomicInteger();
+    // the maximum no of idle workspaces kept
+    private final int maximumIdleWorkspaces;
+    // the maximum no of pixels of an image whose workspace is kept
+    private volatile long maximumWorkspacePixels = DEFAULT_MAXIMUM_WORKSPACE_PIXELS;
+    // the filter of the blobs to be kept, null for all blobs
+    private volatile BlobFilter blobFilter = null;
+    // the threshold policy for the gray and color images, null for binary images only
+    private volatile ThresholdPolicy thresholdPolicy = null;
+    // the receiver of the metrics of the extractions of all the threads
+    private volatile ExtractionMetrics metrics = ExtractionMetrics.NONE;
+
+    /*
+     * constructor which keeps an idle workspace for every processor
+     */
+    public ConcurrentBlobExtractor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /*
+     * constructor which keeps at most the specified no of idle workspaces
+     */
+    public ConcurrentBlobExtractor(int maximumIdleWorkspaces) {
+        if (maximumIdleWorkspaces < 1) {
+            throw new IllegalArgumentException("maximum idle workspaces should be at least 1");
+        }
+        this.maximumIdleWorkspaces = maximumIdleWorkspaces;
+    }
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs an arraylist of
+     * detected blob images
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            return workspace.extractBlobs(sourceImage);
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked the same way as by the level2 blob extractor,
+     * the workspace is given back even if the extraction is aborted
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ExtractionBudget budget) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            return workspace.extractBlobs(sourceImage, budget);
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to extract all blobs from an image
+     * has the source image as parameter and outputs an arraylist of
+     * handles of the detected blobs
+     *
+     * the blob handles keep the label buffer of the image, so a new label
+     * buffer is used for every call. the label buffer of an image labeled off
+     * heap outlives the workspace : it is unmapped when the blob handles are
+     * garbage collected and its file is deleted when the java virtual
+     * machine exits, for an earlier release use a level2 blob extractor of
+     * its own and close() it
+     */
+    public ArrayList<Blob> extract(BufferedImage sourceImage) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            ArrayList<Blob> blobList = workspace.extract(sourceImage);
+            if (blobList != null) {
+                // the workspace should not release the label buffer of the handles
+                workspace.detachLabels();
+            }
+            return blobList;
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to extract all blobs from an image and to give them to a listener
+     * has the source image and the blob listener as parameters and outputs
+     * false if the image is not a valid image
+     *
+     * the listener is called while the workspace is held, so the image is
+     * labeled onto the label buffer of the workspace and no label buffer is
+     * allocated once the pool is warmed up. the blob handles are valid only
+     * till the listener returns, a blob to be kept should be materialized
+     * (see Blob.materialize()) by the listener
+     */
+    public boolean extract(BufferedImage sourceImage, BlobListener listener) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            return workspace.extract(sourceImage, listener);
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to label an image onto a label map
+     * has the source image and the label map as parameters and outputs the
+     * label map, or null if the image is not a valid image
+     *
+     * the label map is used the same way as by the level2 blob extractor,
+     * so a label map owned by the calling thread can be reused for every image
+     */
+    public int[] extractLabels(BufferedImage sourceImage, int labelMap[]) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            return workspace.extractLabels(sourceImage, labelMap);
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to get the statistics of all the blobs of an image
+     * has the source image as parameter and outputs the blob statistics,
+     * or null if the image is not a valid image
+     *
+     * the image is labeled onto the label buffer of the workspace, only the
+     * returned statistics are allocated
+     */
+    public BlobStatistics extractStatistics(BufferedImage sourceImage) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            BlobStatistics statistics = workspace.extractStatistics(sourceImage);
+            // the statistics of the workspace are refilled by its next image
+            return statistics != null ? statistics.copy() : null;
+        } finally {
+            giveBackWorkspace(workspace, sourceImage);
+        }
+    }
+
+    /*
+     * method to check whether the inputed image is a valid image or not
+     */
+    public boolean isValidImage(BufferedImage img) {
+        BlobExtractor workspace = takeWorkspace();
+        try {
+            return workspace.isValidImage(img);
+        } finally {
+            giveBackWorkspace(workspace, null);
+        }
+    }
+
+    /*
+     * method to set the filter of the blobs to be kept, null (the default) for all blobs
+     *
+     * the filter is shared by all the threads, so it should not be changed
+     * while an extraction is running
+     */
+    public void setBlobFilter(BlobFilter blobFilter) {
+        this.blobFilter = blobFilter;
+    }
+
+    /*
+     * method to get the filter of the blobs to be kept
+     */
+    public BlobFilter getBlobFilter() {
+        return blobFilter;
+    }
+
+    /*
+     * method to set the threshold policy by which the gray and color images
+     * are turned into binary images while they are labeled
+     *
+     * null (the default) accepts the binary images only
+     */
+    public void setThresholdPolicy(ThresholdPolicy thresholdPolicy) {
+        this.thresholdPolicy = thresholdPolicy;
+    }
+
+    /*
+     * method to get the threshold policy, null if only binary images are accepted
+     */
+    public ThresholdPolicy getThresholdPolicy() {
+        return thresholdPolicy;
+    }
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     *
+     * the receiver is called by all the threads, so it should be thread safe
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to set the maximum no of pixels of an image whose workspace is
+     * kept for reuse
+     */
+    public void setMaximumWorkspacePixels(long maximumWorkspacePixels) {
+        if (maximumWorkspacePixels < 0) {
+            throw new IllegalArgumentException("maximum workspace pixels should not be negative");
+        }
+        this.maximumWorkspacePixels = maximumWorkspacePixels;
+    }
+
+    /*
+     * method to get the maximum no of pixels of an image whose workspace is
+     * kept for reuse
+     */
+    public long getMaximumWorkspacePixels() {
+        return maximumWorkspacePixels;
+    }
+
+    /*
+     * method to get the no of idle workspaces in the pool
+     */
+    public int getIdleWorkspaceCount() {
+        return idleCount.get();
+    }
+
+    /*
+     * method to take an idle workspace from the pool, or to create a new one
+     */
+    private BlobExtractor takeWorkspace() {
+        BlobExtractor workspace = workspaces.poll();
+        if (workspace != null) {
+            idleCount.decrementAndGet();
+        } else {
+            workspace = new BlobExtractor();
+            workspace.setReuseStatistics(true);
+        }
+        workspace.setBlobFilter(blobFilter);
+        workspace.setThresholdPolicy(thresholdPolicy);
+        workspace.setMetrics(metrics);
+        return workspace;
+    }
+
+    /*
+     * method to give back a workspace to the pool after labeling an image
+     *
+     * the workspace is dropped if the pool is full or the image was too large.
+     * it is closed first either way, which releases the off heap label buffers
+     * of an extraction which failed or was aborted; the label buffer of the
+     * blob handles given out is detached from the workspace before
+     */
+    private void giveBackWorkspace(BlobExtractor workspace, BufferedImage sourceImage) {
+        workspace.close();
+        if (sourceImage != null && (long) sourceImage.getWidth() * sourceImage.getHeight() > maximumWorkspacePixels) {
+            return;
+        }
+        if (idleCount.incrementAndGet() > maximumIdleWorkspaces) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        workspace.setBlobFilter(null);
+        workspaces.offer(workspace);
+    }
+}
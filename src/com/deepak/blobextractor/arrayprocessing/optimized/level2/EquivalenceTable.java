@@ -0,0 +1,189 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.arrayprocessing.optimized.level2;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the union-find equivalence table of the provisional labels
+ *
+ * parent[label] holds the parent label of a provisional label
+ * a label which is its own parent is the root of its equivalence class
+ * the root is always the smallest label of the class
+ *
+ * label 0 is the background and is never part of any class
+ */
+class EquivalenceTable {
+
+    // the initial size of the equivalence table
+    private static final int INITIAL_TABLE_SIZE = 1024;
+    // the equivalence table
+    private int parent[] = null;
+    // the label index
+    // the next provisional label to be assigned
+    private int labelIndex = 1;
+    // the no of unions of two different classes
+    private int mergeCount = 0;
+
+    /*
+     * constructor which creates an empty equivalence table
+     */
+    EquivalenceTable() {
+        parent = new int[INITIAL_TABLE_SIZE];
+    }
+
+    /*
+     * constructor which creates an equivalence table with the labels 1 to
+     * labelCount, each in its own class
+     */
+    EquivalenceTable(int labelCount) {
+        parent = new int[labelCount + 1];
+        for (int i = 1; i <= labelCount; i++) {
+            parent[i] = i;
+        }
+        labelIndex = labelCount + 1;
+    }
+
+    /*
+     * method to empty the equivalence table for reuse
+     *
+     * the table keeps its size
+     */
+    void reset() {
+        labelIndex = 1;
+        mergeCount = 0;
+    }
+
+    /*
+     * method to reset the equivalence table to the labels 1 to labelCount,
+     * each in its own class
+     *
+     * the table is grown only if it is too small
+     */
+    void reset(int labelCount) {
+        if (parent.length < labelCount + 1) {
+            parent = new int[labelCount + 1];
+        }
+        for (int i = 1; i <= labelCount; i++) {
+            parent[i] = i;
+        }
+        labelIndex = labelCount + 1;
+        mergeCount = 0;
+    }
+
+    /*
+     * method to get a new provisional label
+     *
+     * grows the equivalence table when needed
+     */
+    int newLabel() {
+        if (labelIndex == parent.length) {
+            int table[] = new int[parent.length * 2];
+            System.arraycopy(parent, 0, table, 0, parent.length);
+            parent = table;
+        }
+        parent[labelIndex] = labelIndex;
+        return labelIndex++;
+    }
+
+    /*
+     * method to get the no of provisional labels
+     */
+    int getLabelCount() {
+        return labelIndex - 1;
+    }
+
+    /*
+     * method to find the root label of the equivalence class of a label
+     *
+     * the path is compressed on the way so later finds are faster
+     */
+    int find(int label) {
+        while (parent[label] != label) {
+            // point the label to its grand parent (path halving)
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /*
+     * method to mark two labels as equivalent
+     *
+     * the smaller root becomes the root of the merged class
+     */
+    void union(int label1, int label2) {
+        int root1 = find(label1);
+        int root2 = find(label2);
+        if (root1 < root2) {
+            parent[root2] = root1;
+            mergeCount++;
+        } else if (root2 < root1) {
+            parent[root1] = root2;
+            mergeCount++;
+        }
+    }
+
+    /*
+     * method to get the no of unions of two different classes
+     */
+    int getMergeCount() {
+        return mergeCount;
+    }
+
+    /*
+     * method to flatten the equivalence table
+     *
+     * every provisional label is mapped to the final label of its class
+     * the final labels are consecutive from 1 in the order of the roots
+     * returns the no of final labels
+     *
+     * after flattening get() is to be used instead of find()
+     */
+    int flatten() {
+        // as a parent label is always smaller than its child label
+        // the parent entry is already resolved to the final label when the child is met
+        int count = 0;
+        for (int i = 1; i < labelIndex; i++) {
+            if (parent[i] < i) {
+                parent[i] = parent[parent[i]];
+            } else {
+                count++;
+                parent[i] = count;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * method to get the final label of a provisional label of a flattened table
+     */
+    int get(int label) {
+        return parent[label];
+    }
+}
@@ -0,0 +1,356 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.arrayprocessing.optimized.level2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the label buffer, which holds the label of every pixel of the image
+ *
+ * the labels are stored in the narrowest width which can hold them; a
+ * buffer starts with a byte per pixel (labels up to 255) and is promoted to a
+ * short (labels up to 65535) and then to an int per pixel as more labels
+ * are needed. the labels are unsigned, 0 being the background
+ *
+ * the pixels are indexed by long offsets, so a label buffer can be larger
+ * than a java array when it is kept off the heap in a memory mapped file
+ */
+abstract class LabelBuffer {
+
+    // the largest no of elements of a java array
+    static final long MAXIMUM_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    // the no of pixels
+    protected long size = 0;
+
+    /*
+     * method to create a new label buffer of the narrowest width
+     */
+    static LabelBuffer create(long size) {
+        return new ByteLabelBuffer((int) size);
+    }
+
+    /*
+     * method to create a new label buffer in a memory mapped temporary file
+     * in the specified directory (null for the default temporary directory)
+     *
+     * the labels are kept off the java heap with an int per pixel, the file
+     * is deleted when the label buffer is released, or else when the java
+     * virtual machine exits
+     */
+    static LabelBuffer map(long size, File directory) throws IOException {
+        return new MappedLabelBuffer(size, directory);
+    }
+
+    /*
+     * method to wrap an int array as a label buffer
+     */
+    static LabelBuffer wrap(int labels[]) {
+        return new IntLabelBuffer(labels);
+    }
+
+    /*
+     * method to get the label of a pixel
+     */
+    abstract int get(long index);
+
+    /*
+     * method to set the label of a pixel
+     */
+    abstract void set(long index, int label);
+
+    /*
+     * method to set the label of the pixels from index to toIndex - 1
+     */
+    abstract void fill(long index, long toIndex, int label);
+
+    /*
+     * method to get the largest label the buffer can hold
+     */
+    abstract int getMaxLabel();
+
+    /*
+     * method to get the no of bits per label (8, 16 or 32)
+     */
+    abstract int getBits();
+
+    /*
+     * method to get a wider label buffer with the same labels
+     */
+    abstract LabelBuffer promote();
+
+    /*
+     * method to release the storage of the label buffer
+     *
+     * nothing to be done for a label buffer on the java heap
+     */
+    void release() {
+    }
+
+    /*
+     * the label buffer with a byte per pixel
+     */
+    private static final class ByteLabelBuffer extends LabelBuffer {
+
+        private byte labels[] = null;
+
+        ByteLabelBuffer(int size) {
+            this.size = size;
+            this.labels = new byte[size];
+        }
+
+        int get(long index) {
+            return labels[(int) index] & 0xFF;
+        }
+
+        void set(long index, int label) {
+            labels[(int) index] = (byte) label;
+        }
+
+        void fill(long index, long toIndex, int label) {
+            Arrays.fill(labels, (int) index, (int) toIndex, (byte) label);
+        }
+
+        int getMaxLabel() {
+            return 0xFF;
+        }
+
+        int getBits() {
+            return 8;
+        }
+
+        LabelBuffer promote() {
+            ShortLabelBuffer buffer = new ShortLabelBuffer((int) size);
+            for (int i = 0; i < size; i++) {
+                buffer.labels[i] = (short) (labels[i] & 0xFF);
+            }
+            return buffer;
+        }
+    }
+
+    /*
+     * the label buffer with a short per pixel
+     */
+    private static final class ShortLabelBuffer extends LabelBuffer {
+
+        private short labels[] = null;
+
+        ShortLabelBuffer(int size) {
+            this.size = size;
+            this.labels = new short[size];
+        }
+
+        int get(long index) {
+            return labels[(int) index] & 0xFFFF;
+        }
+
+        void set(long index, int label) {
+            labels[(int) index] = (short) label;
+        }
+
+        void fill(long index, long toIndex, int label) {
+            Arrays.fill(labels, (int) index, (int) toIndex, (short) label);
+        }
+
+        int getMaxLabel() {
+            return 0xFFFF;
+        }
+
+        int getBits() {
+            return 16;
+        }
+
+        LabelBuffer promote() {
+            int buffer[] = new int[(int) size];
+            for (int i = 0; i < size; i++) {
+                buffer[i] = labels[i] & 0xFFFF;
+            }
+            return new IntLabelBuffer(buffer);
+        }
+    }
+
+    /*
+     * the label buffer with an int per pixel
+     */
+    private static final class IntLabelBuffer extends LabelBuffer {
+
+        private int labels[] = null;
+
+        IntLabelBuffer(int labels[]) {
+            this.size = labels.length;
+            this.labels = labels;
+        }
+
+        int get(long index) {
+            return labels[(int) index];
+        }
+
+        void set(long index, int label) {
+            labels[(int) index] = label;
+        }
+
+        void fill(long index, long toIndex, int label) {
+            Arrays.fill(labels, (int) index, (int) toIndex, label);
+        }
+
+        int getMaxLabel() {
+            return Integer.MAX_VALUE;
+        }
+
+        int getBits() {
+            return 32;
+        }
+
+        LabelBuffer promote() {
+            throw new IllegalStateException("label buffer can not be wider than an int per pixel");
+        }
+    }
+
+    /*
+     * the label buffer with an int per pixel in a memory mapped temporary file
+     *
+     * a single mapping is limited to 2 GB, so the file is mapped as a list of
+     * chunks of CHUNK_PIXELS pixels each
+     */
+    private static final class MappedLabelBuffer extends LabelBuffer {
+
+        // the no of pixels of a chunk (1 GB of labels)
+        private static final int CHUNK_SHIFT = 28;
+        private static final long CHUNK_PIXELS = 1L << CHUNK_SHIFT;
+        private static final long CHUNK_MASK = CHUNK_PIXELS - 1;
+        // the temporary file and the mapped chunks of it
+        private File file = null;
+        private MappedByteBuffer chunks[] = null;
+        // the int views of the chunks
+        private IntBuffer labels[] = null;
+
+        MappedLabelBuffer(long size, File directory) throws IOException {
+            this.size = size;
+            file = File.createTempFile("labels", ".tmp", directory);
+            // a label buffer which is never released leaves no file behind
+            file.deleteOnExit();
+            int chunkCount = (int) ((size + CHUNK_PIXELS - 1) / CHUNK_PIXELS);
+            chunks = new MappedByteBuffer[chunkCount];
+            labels = new IntBuffer[chunkCount];
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                // the file is created sparse, so all the labels are initially 0
+                randomAccessFile.setLength(size * 4);
+                FileChannel channel = randomAccessFile.getChannel();
+                for (int i = 0; i < chunkCount; i++) {
+                    long start = i * CHUNK_PIXELS;
+                    long length = Math.min(CHUNK_PIXELS, size - start);
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * 4, length * 4);
+                    chunks[i].order(ByteOrder.nativeOrder());
+                    labels[i] = chunks[i].asIntBuffer();
+                }
+            } catch (IOException e) {
+                release();
+                throw e;
+            } finally {
+                // the mappings stay valid after the file is closed
+                randomAccessFile.close();
+            }
+        }
+
+        int get(long index) {
+            return labels[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+        }
+
+        void set(long index, int label) {
+            labels[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), label);
+        }
+
+        void fill(long index, long toIndex, int label) {
+            for (long i = index; i < toIndex; i++) {
+                set(i, label);
+            }
+        }
+
+        int getMaxLabel() {
+            return Integer.MAX_VALUE;
+        }
+
+        int getBits() {
+            return 32;
+        }
+
+        LabelBuffer promote() {
+            throw new IllegalStateException("label buffer can not be wider than an int per pixel");
+        }
+
+        /*
+         * method to unmap the chunks and delete the temporary file
+         */
+        void release() {
+            if (chunks != null) {
+                for (MappedByteBuffer chunk : chunks) {
+                    if (chunk != null) {
+                        unmap(chunk);
+                    }
+                }
+                chunks = null;
+                labels = null;
+            }
+            if (file != null) {
+                // a file which can not be deleted now is deleted on exit
+                file.delete();
+                file = null;
+            }
+        }
+
+        /*
+         * method to unmap a mapped chunk right away
+         *
+         * there is no public api for it, so the jdk internal cleaner is called
+         * when it is available; else the chunk is unmapped when it is garbage
+         * collected
+         */
+        private static void unmap(MappedByteBuffer chunk) {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+                invokeCleaner.invoke(field.get(null), chunk);
+            } catch (Exception e) {
+                // left to the garbage collector
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.arrayprocessing.optimized.level2;
+
+import com.deepak.blobextractor.BlobStatistics;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * a horizontal strip of the image which is labeled on its own
+ *
+ * the strip has its own equivalence table, so its labels are local to the
+ * strip; the local labels are mapped to the image (global) labels once the
+ * blobs crossing the strip borders are merged
+ */
+class Strip {
+
+    // the rows of the strip (rowStart to rowEnd - 1)
+    int rowStart = 0;
+    int rowEnd = 0;
+    // the equivalence table of the strip
+    EquivalenceTable table = null;
+    // whether the strip ran out of labels durying the first pass
+    boolean overflowed = false;
+    // the no of blobs (local final labels) in the strip
+    int blobCount = 0;
+    // the offset of the local final labels in the merged equivalence table
+    int labelOffset = 0;
+    // the global label of every local final label
+    int globalLabel[] = null;
+    // the statistics of the blobs in the strip, indexed by the local final labels
+    BlobStatistics blobStatistics = null;
+
+    /*
+     * constructor which creates a strip with the specified rows
+     */
+    Strip(int rowStart, int rowEnd) {
+        this.rowStart = rowStart;
+        this.rowEnd = rowEnd;
+        this.table = new EquivalenceTable();
+    }
+
+    /*
+     * method to reset the strip for reuse with the specified rows
+     *
+     * the equivalence table and the arrays of the strip are kept
+     */
+    void reset(int rowStart, int rowEnd) {
+        this.rowStart = rowStart;
+        this.rowEnd = rowEnd;
+        table.reset();
+        overflowed = false;
+        blobCount = 0;
+        labelOffset = 0;
+    }
+}
@@ -0,0 +1,363 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobFilter;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ThresholdPolicy;
+import com.deepak.blobextractor.arrayprocessing.optimized.level2.ConcurrentBlobExtractor;
+import com.deepak.blobextractor.streaming.BlobListener;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides methods for blob extraction from a batch of images
+ *
+ * every image goes through the stages
+ *  - decode      : the image is read from its source
+ *  - validate    : the image is checked by isValidImage()
+ *  - label       : the blobs of the image are labeled
+ *  - materialize : the blobs are drawn to packed bitmaps (see Blob.materialize())
+ *  - sink        : the blob images are given to the blob sink
+ *
+ * the stages of different images overlap : decode, validate and sink, which
+ * mostly wait for I/O, run on the I/O threads and label and materialize,
+ * which keep a processor busy, run on the labeling threads (by default one
+ * per processor) sharing a concurrent blob extractor. so the processors keep
+ * labeling while other images are decoded and written. the blobs are
+ * materialized while the image is held by a pooled workspace, so the label
+ * buffers of the workspaces are reused for every image
+ *
+ * the no of images in flight (taken from the sources and not yet sunk) is
+ * bounded; the sources are not read ahead of the slowest stage, so the
+ * memory stays flat irrespective of the no of images in the batch
+ */
+public class BatchExtractor {
+
+    // the no of labeling threads
+    private int labelThreads = Runtime.getRuntime().availableProcessors();
+    // the no of I/O threads
+    private int ioThreads = 2 * labelThreads;
+    // the maximum no of images in flight
+    private int maximumInFlight = 4 * labelThreads;
+    // the blob extractor shared by the labeling threads
+    private ConcurrentBlobExtractor extractor = new ConcurrentBlobExtractor();
+
+    /*
+     * method to extract the blobs of all the images of the specified sources
+     * and to give them to the specified blob sink
+     *
+     * returns once every image is sunk, failed or found invalid. a failed
+     * image does not stop the batch, it is counted and its failure is
+     * recorded in the batch statistics
+     */
+    public BatchStatistics extract(Iterable<? extends ImageSource> sources, BlobSink sink) throws InterruptedException {
+        BatchStatistics statistics = new BatchStatistics();
+        ExecutorService ioPool = Executors.newFixedThreadPool(ioThreads, new StageThreadFactory("blob-io-"));
+        ExecutorService labelPool = Executors.newFixedThreadPool(labelThreads, new StageThreadFactory("blob-label-"));
+        // a permit for every image in flight
+        Semaphore inFlight = new Semaphore(maximumInFlight);
+        try {
+            for (ImageSource source : sources) {
+                // wait till an image in flight is done
+                inFlight.acquire();
+                statistics.addImage();
+                ioPool.execute(new ImageTask(source, sink, statistics, inFlight, ioPool, labelPool));
+            }
+            // wait till all the images in flight are done
+            inFlight.acquire(maximumInFlight);
+            inFlight.release(maximumInFlight);
+        } finally {
+            ioPool.shutdownNow();
+            labelPool.shutdownNow();
+            statistics.finish();
+        }
+        return statistics;
+    }
+
+    /*
+     * the task which takes an image through all the stages
+     *
+     * the task is run first on an I/O thread (decode and validate), then on a
+     * labeling thread (label and materialize) and last on an I/O thread (sink).
+     * it is also the listener which materializes the blobs of its image
+     */
+    private class ImageTask implements Runnable, BlobListener {
+
+        // the image source
+        private ImageSource source = null;
+        // the blob sink
+        private BlobSink sink = null;
+        // the counters of the batch
+        private BatchStatistics statistics = null;
+        // the permits of the images in flight
+        private Semaphore inFlight = null;
+        // the thread pools of the stages
+        private ExecutorService ioPool = null;
+        private ExecutorService labelPool = null;
+        // the next stage to be run
+        private int stage = BatchStatistics.DECODE;
+        // the decoded image and the materialized blobs
+        private BufferedImage image = null;
+        private ArrayList<Blob> blobs = null;
+        // the time the image was labeled at
+        private long labeled = 0;
+
+        ImageTask(ImageSource source, BlobSink sink, BatchStatistics statistics, Semaphore inFlight,
+                ExecutorService ioPool, ExecutorService labelPool) {
+            this.source = source;
+            this.sink = sink;
+            this.statistics = statistics;
+            this.inFlight = inFlight;
+            this.ioPool = ioPool;
+            this.labelPool = labelPool;
+        }
+
+        public void run() {
+            boolean done = true;
+            try {
+                if (stage == BatchStatistics.DECODE) {
+                    done = decode();
+                } else if (stage == BatchStatistics.LABEL) {
+                    done = label();
+                } else {
+                    sink();
+                }
+            } catch (Exception e) {
+                statistics.addFailed(source.getName(), stage, e);
+            } finally {
+                // the permit is given back once the image is done
+                if (done) {
+                    image = null;
+                    blobs = null;
+                    inFlight.release();
+                }
+            }
+        }
+
+        /*
+         * method to decode and validate the image, on an I/O thread
+         *
+         * returns true if the image is done (not valid)
+         */
+        private boolean decode() throws Exception {
+            long start = System.nanoTime();
+            image = source.read();
+            long decoded = System.nanoTime();
+            statistics.addStage(BatchStatistics.DECODE, decoded - start);
+
+            stage = BatchStatistics.VALIDATE;
+            if (!extractor.isValidImage(image)) {
+                statistics.addInvalid();
+                return true;
+            }
+            statistics.addStage(BatchStatistics.VALIDATE, System.nanoTime() - decoded);
+
+            // label on a labeling thread
+            stage = BatchStatistics.LABEL;
+            labelPool.execute(this);
+            return false;
+        }
+
+        /*
+         * method to label the image and to materialize its blobs, on a labeling thread
+         *
+         * returns true if the image is done
+         */
+        private boolean label() throws Exception {
+            long start = System.nanoTime();
+            // the blobs are given to blobExtracted() once the image is labeled
+            blobs = new ArrayList<Blob>();
+            extractor.extract(image, this);
+            long materialized = System.nanoTime();
+            if (stage == BatchStatistics.LABEL) {
+                // the image has no blobs
+                labeled = materialized;
+                stage = BatchStatistics.MATERIALIZE;
+            }
+            statistics.addStage(BatchStatistics.LABEL, labeled - start);
+            statistics.addStage(BatchStatistics.MATERIALIZE, materialized - labeled);
+            statistics.addBlobs(blobs.size());
+            // the source image is no longer needed
+            image = null;
+
+            // sink on an I/O thread
+            stage = BatchStatistics.SINK;
+            ioPool.execute(this);
+            return false;
+        }
+
+        /*
+         * method to materialize a blob of the image, while its workspace is held
+         */
+        public void blobExtracted(Blob blob) {
+            if (stage == BatchStatistics.LABEL) {
+                // the image is labeled once its first blob is given
+                labeled = System.nanoTime();
+                stage = BatchStatistics.MATERIALIZE;
+            }
+            blobs.add(blob.materialize());
+        }
+
+        /*
+         * method to give the blobs to the blob sink, on an I/O thread
+         */
+        private void sink() throws Exception {
+            long start = System.nanoTime();
+            sink.blobsExtracted(source.getName(), blobs);
+            statistics.addStage(BatchStatistics.SINK, System.nanoTime() - start);
+        }
+    }
+
+    /*
+     * the thread factory of the stage threads
+     *
+     * the threads are daemon threads so a batch left running does not keep
+     * the application alive
+     */
+    private static class StageThreadFactory implements ThreadFactory {
+
+        // the thread name prefix
+        private String prefix = null;
+        // the thread counter
+        private AtomicInteger threadCount = new AtomicInteger();
+
+        StageThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /*
+     * method to set the no of labeling threads
+     */
+    public void setLabelThreads(int labelThreads) {
+        if (labelThreads < 1) {
+            throw new IllegalArgumentException("label threads should be at least 1");
+        }
+        this.labelThreads = labelThreads;
+    }
+
+    /*
+     * method to get the no of labeling threads
+     */
+    public int getLabelThreads() {
+        return labelThreads;
+    }
+
+    /*
+     * method to set the no of I/O threads
+     */
+    public void setIoThreads(int ioThreads) {
+        if (ioThreads < 1) {
+            throw new IllegalArgumentException("I/O threads should be at least 1");
+        }
+        this.ioThreads = ioThreads;
+    }
+
+    /*
+     * method to get the no of I/O threads
+     */
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /*
+     * method to set the maximum no of images in flight
+     */
+    public void setMaximumInFlight(int maximumInFlight) {
+        if (maximumInFlight < 1) {
+            throw new IllegalArgumentException("maximum in flight should be at least 1");
+        }
+        this.maximumInFlight = maximumInFlight;
+    }
+
+    /*
+     * method to get the maximum no of images in flight
+     */
+    public int getMaximumInFlight() {
+        return maximumInFlight;
+    }
+
+    /*
+     * method to set the filter of the blobs to be kept, null (the default) for all blobs
+     */
+    public void setBlobFilter(BlobFilter blobFilter) {
+        extractor.setBlobFilter(blobFilter);
+    }
+
+    /*
+     * method to get the filter of the blobs to be kept
+     */
+    public BlobFilter getBlobFilter() {
+        return extractor.getBlobFilter();
+    }
+
+    /*
+     * method to set the threshold policy by which the gray and color images
+     * are labeled, null (the default) for the binary images only
+     */
+    public void setThresholdPolicy(ThresholdPolicy thresholdPolicy) {
+        extractor.setThresholdPolicy(thresholdPolicy);
+    }
+
+    /*
+     * method to get the threshold policy
+     */
+    public ThresholdPolicy getThresholdPolicy() {
+        return extractor.getThresholdPolicy();
+    }
+
+    /*
+     * method to set the receiver of the metrics of the labeling of every
+     * image, null for none (the default); it should be thread safe
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        extractor.setMetrics(metrics);
+    }
+
+    /*
+     * method to get the receiver of the metrics of the labeling
+     */
+    public ExtractionMetrics getMetrics() {
+        return extractor.getMetrics();
+    }
+}
@@ -0,0 +1,217 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which holds the counters of the stages of a batch extraction
+ *
+ * for every stage the no of images which passed it and the total time spent
+ * in it (summed over all threads) are counted. the counters are updated by
+ * the threads of the stages and can be read while the batch is running
+ *
+ * the images failed are recorded with the stage they failed in and the
+ * cause, for the caller to report
+ */
+public class BatchStatistics {
+
+    // the stages of a batch extraction
+    public static final int DECODE = 0;
+    public static final int VALIDATE = 1;
+    public static final int LABEL = 2;
+    public static final int MATERIALIZE = 3;
+    public static final int SINK = 4;
+    // the stage names
+    private static final String STAGE_NAMES[] = {"decode", "validate", "label", "materialize", "sink"};
+    // the no of images which passed every stage
+    private AtomicLong count[] = new AtomicLong[STAGE_NAMES.length];
+    // the time spent in every stage in nano seconds
+    private AtomicLong nanos[] = new AtomicLong[STAGE_NAMES.length];
+    // the no of images read
+    private AtomicLong imageCount = new AtomicLong();
+    // the no of invalid images
+    private AtomicLong invalidCount = new AtomicLong();
+    // the no of images failed in any stage
+    private AtomicLong failedCount = new AtomicLong();
+    // the failures of the images failed, a line per image
+    private ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<String>();
+    // the no of blobs extracted
+    private AtomicLong blobCount = new AtomicLong();
+    // the start time of the batch and its elapsed time once it is done
+    private long startNanos = 0;
+    private volatile long elapsedNanos = -1;
+
+    /*
+     * constructor which creates the counters of a batch starting now
+     */
+    BatchStatistics() {
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            count[i] = new AtomicLong();
+            nanos[i] = new AtomicLong();
+        }
+        startNanos = System.nanoTime();
+    }
+
+    /*
+     * method to count an image which passed a stage in the specified time
+     */
+    void addStage(int stage, long stageNanos) {
+        count[stage].incrementAndGet();
+        nanos[stage].addAndGet(stageNanos);
+    }
+
+    /*
+     * method to count an image taken from the image sources
+     */
+    void addImage() {
+        imageCount.incrementAndGet();
+    }
+
+    /*
+     * method to count an invalid image
+     */
+    void addInvalid() {
+        invalidCount.incrementAndGet();
+    }
+
+    /*
+     * method to count an image failed in a stage and to record its failure
+     */
+    void addFailed(String name, int stage, Exception cause) {
+        failures.add(name + " failed in " + getStageName(stage) + " stage. " + cause);
+        failedCount.incrementAndGet();
+    }
+
+    /*
+     * method to count the blobs of an image
+     */
+    void addBlobs(long blobs) {
+        blobCount.addAndGet(blobs);
+    }
+
+    /*
+     * method to mark the batch as done
+     */
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    /*
+     * method to get the name of a stage
+     */
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /*
+     * method to get the no of images which passed a stage
+     */
+    public long getCount(int stage) {
+        return count[stage].get();
+    }
+
+    /*
+     * method to get the time spent in a stage in nano seconds, summed over all threads
+     */
+    public long getNanos(int stage) {
+        return nanos[stage].get();
+    }
+
+    /*
+     * method to get the no of images taken from the image sources
+     */
+    public long getImageCount() {
+        return imageCount.get();
+    }
+
+    /*
+     * method to get the no of invalid images
+     */
+    public long getInvalidCount() {
+        return invalidCount.get();
+    }
+
+    /*
+     * method to get the no of images failed in any stage
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /*
+     * method to get the failures of the images failed so far, a line per
+     * image naming the image, the stage it failed in and the cause
+     */
+    public List<String> getFailures() {
+        return new ArrayList<String>(failures);
+    }
+
+    /*
+     * method to get the no of blobs extracted
+     */
+    public long getBlobCount() {
+        return blobCount.get();
+    }
+
+    /*
+     * method to get the elapsed time of the batch in nano seconds
+     * (till now if the batch is still running)
+     */
+    public long getElapsedNanos() {
+        long elapsed = elapsedNanos;
+        return elapsed >= 0 ? elapsed : System.nanoTime() - startNanos;
+    }
+
+    /*
+     * method to get the no of images per second passed by a stage
+     * over the elapsed time of the batch
+     */
+    public double getThroughput(int stage) {
+        return getCount(stage) * 1e9 / Math.max(1, getElapsedNanos());
+    }
+
+    /*
+     * method to get a summary of the counters, a line per stage
+     */
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("images : %d (%d invalid, %d failed), blobs : %d, elapsed : %.1f s%n",
+                getImageCount(), getInvalidCount(), getFailedCount(), getBlobCount(), getElapsedNanos() / 1e9));
+        for (int i = 0; i < STAGE_NAMES.length; i++) {
+            summary.append(String.format("%-12s: %d images, %.1f images/s, %.1f ms busy%n",
+                    STAGE_NAMES[i], getCount(i), getThroughput(i), getNanos(i) / 1e6));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,50 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import com.deepak.blobextractor.Blob;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of the sink of the blobs extracted from the images of a batch
+ *
+ * the sink is called from many threads at a time, once for every valid image
+ */
+public interface BlobSink {
+
+    /*
+     * method to take the blobs extracted from the image with the specified name
+     *
+     * the blobs are materialized (see Blob.materialize()), so drawing them
+     * does not need the labeled image
+     */
+    void blobsExtracted(String name, ArrayList<Blob> blobs) throws IOException;
+}
@@ -0,0 +1,90 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the image source which reads an image file with ImageIO
+ */
+public class FileImageSource implements ImageSource {
+
+    // the image file
+    private File file = null;
+
+    /*
+     * constructor which creates the image source of the specified file
+     */
+    public FileImageSource(File file) {
+        this.file = file;
+    }
+
+    /*
+     * method to get the image sources of the specified files
+     */
+    public static ArrayList<ImageSource> fromFiles(Iterable<File> files) {
+        ArrayList<ImageSource> sources = new ArrayList<ImageSource>();
+        for (File file : files) {
+            sources.add(new FileImageSource(file));
+        }
+        return sources;
+    }
+
+    /*
+     * method to get the image file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /*
+     * method to get the name of the image, the file name without its extension
+     */
+    public String getName() {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /*
+     * method to read the image
+     */
+    public BufferedImage read() throws IOException {
+        BufferedImage img = ImageIO.read(file);
+        if (img == null) {
+            throw new IOException("no image reader found for " + file);
+        }
+        return img;
+    }
+}
@@ -0,0 +1,84 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import com.deepak.blobextractor.Blob;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the blob sink which writes the blob images as image files to a directory
+ *
+ * the blobs of an image named name are written as name_blob0, name_blob1 ...
+ * in the order of the blob list
+ */
+public class ImageFileBlobSink implements BlobSink {
+
+    // the output directory
+    private File directory = null;
+    // the ImageIO format name of the blob images
+    private String format = null;
+
+    /*
+     * constructor which creates a sink writing PNG images to the specified directory
+     */
+    public ImageFileBlobSink(File directory) {
+        this(directory, "png");
+    }
+
+    /*
+     * constructor which creates a sink writing images of the specified
+     * ImageIO format to the specified directory
+     */
+    public ImageFileBlobSink(File directory, String format) {
+        this.directory = directory;
+        this.format = format;
+    }
+
+    /*
+     * method to write the blob images of an image
+     */
+    public void blobsExtracted(String name, ArrayList<Blob> blobs) throws IOException {
+        // blob counter
+        int i = 0;
+        // for all blobs
+        for (Blob blob : blobs) {
+            // write the blob image to a file
+            File file = new File(directory, name + "_blob" + i + "." + format);
+            if (!ImageIO.write(blob.getImage(), format, file)) {
+                throw new IOException("no image writer found for " + format);
+            }
+            // increment blob counter
+            i++;
+        }
+    }
+}
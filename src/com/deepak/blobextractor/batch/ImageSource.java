@@ -0,0 +1,52 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of a source of an image of a batch
+ *
+ * the image is read (decoded) only when it is asked for, so a batch can hold
+ * any no of image sources without holding their images
+ */
+public interface ImageSource {
+
+    /*
+     * method to get the name of the image, used for the output of its blobs
+     */
+    String getName();
+
+    /*
+     * method to read the image
+     */
+    BufferedImage read() throws IOException;
+}
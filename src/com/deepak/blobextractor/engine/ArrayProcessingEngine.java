@@ -0,0 +1,63 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.arrayprocessing.BlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the kernel extractor over the pixel array
+ * (arrayprocessing.BlobExtractor)
+ *
+ * as the optimized kernel extractor (see Level1Engine) but it processes
+ * every kernel, about three times slower
+ */
+public class ArrayProcessingEngine implements ExtractorEngine {
+
+    // the cost relative to the optimized kernel extractor
+    private static final double RELATIVE_COST = 3;
+
+    public String getName() {
+        return "arrayprocessing";
+    }
+
+    public String getDescription() {
+        return "3x3 kernel labeling over the pixel array";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        return RELATIVE_COST * profile.getPixelCount()
+                * (Level1Engine.PIXEL_COST + Level1Engine.PIXEL_RUN_COST * profile.getRunsPerRow());
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        return new BlobExtractor();
+    }
+}
@@ -0,0 +1,172 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ImageBlobExtractor;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the extractor of the auto mode, which samples every image and extracts its
+ * blobs by the engine of the lowest estimated cost for its profile
+ *
+ * an extractor of every engine picked is created once and reused for the
+ * next images; extract() tells the engine picked and the reason with the
+ * blobs, and the metrics receiver gets the engine name of every extraction
+ *
+ * like the extractors of the engines it is not thread safe
+ */
+public class AutoBlobExtractor implements ImageBlobExtractor {
+
+    // the registry of the engines
+    private EngineRegistry registry = null;
+    // the extractors of the engines picked so far, by the engine name
+    private Map<String, ImageBlobExtractor> extractors = new HashMap<String, ImageBlobExtractor>();
+    // the engine picked for the last image
+    private EngineSelection lastSelection = null;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+
+    /*
+     * constructor which creates an extractor picking the engines of the
+     * specified registry
+     */
+    public AutoBlobExtractor(EngineRegistry registry) {
+        this.registry = registry;
+    }
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs an arraylist of
+     * detected blob images
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage img) {
+        ExtractionResult result = extract(img);
+        return result != null ? result.getBlobs() : null;
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage img, ExtractionBudget budget) {
+        ExtractionResult result = extract(img, budget);
+        return result != null ? result.getBlobs() : null;
+    }
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs the blob images and
+     * the engine picked, or null if the image is not a valid image
+     */
+    public ExtractionResult extract(BufferedImage img) {
+        return extract(img, null);
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs the blob images and the engine picked, or null if the image is
+     * not a valid image
+     *
+     * the budget is checked before the image is sampled and then by the
+     * extractor of the engine picked
+     */
+    public ExtractionResult extract(BufferedImage img, ExtractionBudget budget) {
+        if (!isValidImage(img)) {
+            return null;
+        }
+        if (budget != null) {
+            budget.check(0, 0);
+        }
+        EngineSelection selection = registry.select(img);
+        ImageBlobExtractor extractor = extractors.get(selection.getEngineName());
+        if (extractor == null) {
+            extractor = selection.getEngine().createExtractor();
+            extractor.setMetrics(metrics);
+            extractors.put(selection.getEngineName(), extractor);
+        }
+        lastSelection = selection;
+        return new ExtractionResult(extractor.extractBlobs(img, budget), selection);
+    }
+
+    /*
+     * method to get the engine picked for the last image, null if none
+     */
+    public EngineSelection getLastSelection() {
+        return lastSelection;
+    }
+
+    /*
+     * method to check whether the inputed image is a valid image or not
+     *
+     * the image should be valid for every engine
+     */
+    public boolean isValidImage(BufferedImage img) {
+        // the image should not be null
+        if (img == null) {
+            System.out.println("Error : Invalid Image! null image.");
+            return false;
+        } // the image resolution should not be less than 9x9
+        else if (img.getWidth() < 9 || img.getHeight() < 9) {
+            System.out.println("Error : Invalid Image! minimum image resolution should be 9X9.");
+            return false;
+        } // the image should be of type byte binary
+        else if (img.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            System.out.println("Error : Invalid Image! image should be binary image.");
+            return false;
+        }
+        // if all the abouve conditions are satisfied then it is a valid image for blob extraction
+        return true;
+    }
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+        for (ImageBlobExtractor extractor : extractors.values()) {
+            extractor.setMetrics(this.metrics);
+        }
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,162 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the registry of the blob extraction engines
+ *
+ * the engines are found by java.util.ServiceLoader once, when the registry is
+ * created (see ExtractorEngine); the first engine found of a name is kept.
+ * an extractor is created by the engine name, or by "auto" for an extractor
+ * which picks the engine of the lowest estimated cost for every image. usage :
+ *
+ *   ImageBlobExtractor extractor = new EngineRegistry().createExtractor("auto");
+ *
+ * the registry is not changed after it is created, so it is thread safe
+ */
+public class EngineRegistry {
+
+    // the name of the auto mode
+    public static final String AUTO = "auto";
+    // the engines
+    private List<ExtractorEngine> engines = null;
+
+    /*
+     * constructor which finds the engines by the context class loader
+     */
+    public EngineRegistry() {
+        this(Thread.currentThread().getContextClassLoader());
+    }
+
+    /*
+     * constructor which finds the engines by the specified class loader
+     */
+    public EngineRegistry(ClassLoader classLoader) {
+        List<ExtractorEngine> found = new ArrayList<ExtractorEngine>();
+        List<String> names = new ArrayList<String>();
+        for (ExtractorEngine engine : ServiceLoader.load(ExtractorEngine.class, classLoader)) {
+            if (!names.contains(engine.getName()) && !engine.getName().equals(AUTO)) {
+                names.add(engine.getName());
+                found.add(engine);
+            }
+        }
+        engines = Collections.unmodifiableList(found);
+    }
+
+    /*
+     * method to get the engines in the order they were found
+     */
+    public List<ExtractorEngine> getEngines() {
+        return engines;
+    }
+
+    /*
+     * method to get the names of the engines and of the auto mode
+     */
+    public List<String> getEngineNames() {
+        List<String> names = new ArrayList<String>();
+        for (ExtractorEngine engine : engines) {
+            names.add(engine.getName());
+        }
+        names.add(AUTO);
+        return names;
+    }
+
+    /*
+     * method to get the engine of the specified name
+     */
+    public ExtractorEngine getEngine(String name) {
+        for (ExtractorEngine engine : engines) {
+            if (engine.getName().equals(name)) {
+                return engine;
+            }
+        }
+        throw new IllegalArgumentException("unknown engine " + name + ", the engines are " + getEngineNames());
+    }
+
+    /*
+     * method to create an extractor of the engine of the specified name,
+     * or of the auto mode
+     */
+    public ImageBlobExtractor createExtractor(String name) {
+        if (name.equals(AUTO)) {
+            return new AutoBlobExtractor(this);
+        }
+        return getEngine(name).createExtractor();
+    }
+
+    /*
+     * method to pick the engine of the lowest estimated cost for an image
+     */
+    public EngineSelection select(BufferedImage img) {
+        return select(ImageProfile.sample(img));
+    }
+
+    /*
+     * method to pick the engine of the lowest estimated cost for an image of
+     * the specified profile
+     *
+     * the reason tells the profile and the estimated costs of the engine and
+     * of the next cheapest engine
+     */
+    public EngineSelection select(ImageProfile profile) {
+        ExtractorEngine best = null;
+        ExtractorEngine next = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        double nextCost = Double.POSITIVE_INFINITY;
+        for (ExtractorEngine engine : engines) {
+            double cost = engine.estimateCost(profile);
+            if (cost < bestCost) {
+                next = best;
+                nextCost = bestCost;
+                best = engine;
+                bestCost = cost;
+            } else if (cost < nextCost) {
+                next = engine;
+                nextCost = cost;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("no engine can extract an image of " + profile);
+        }
+        String reason = String.format("lowest estimated cost %.2f ms for %s", bestCost / 1e6, profile);
+        if (next != null) {
+            reason += String.format(", next %s %.2f ms", next.getName(), nextCost / 1e6);
+        }
+        return new EngineSelection(best, profile, bestCost, reason);
+    }
+}
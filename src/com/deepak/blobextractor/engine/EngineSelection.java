@@ -0,0 +1,97 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine picked by the auto mode for an image, with the reason it was picked
+ */
+public class EngineSelection {
+
+    // the engine picked
+    private ExtractorEngine engine = null;
+    // the profile of the image
+    private ImageProfile profile = null;
+    // the estimated cost of the engine in nano seconds
+    private double estimatedCost = 0;
+    // the reason the engine was picked
+    private String reason = null;
+
+    /*
+     * constructor which creates a selection
+     */
+    public EngineSelection(ExtractorEngine engine, ImageProfile profile, double estimatedCost, String reason) {
+        this.engine = engine;
+        this.profile = profile;
+        this.estimatedCost = estimatedCost;
+        this.reason = reason;
+    }
+
+    /*
+     * method to get the engine picked
+     */
+    public ExtractorEngine getEngine() {
+        return engine;
+    }
+
+    /*
+     * method to get the name of the engine picked
+     */
+    public String getEngineName() {
+        return engine.getName();
+    }
+
+    /*
+     * method to get the profile of the image
+     */
+    public ImageProfile getProfile() {
+        return profile;
+    }
+
+    /*
+     * method to get the estimated cost of the engine in nano seconds
+     */
+    public double getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    /*
+     * method to get the reason the engine was picked
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /*
+     * method to get the engine name and the reason
+     */
+    public String toString() {
+        return engine.getName() + " (" + reason + ")";
+    }
+}
@@ -0,0 +1,67 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the result of an extraction in the auto mode : the blob images and the
+ * engine which extracted them, with the reason it was picked
+ */
+public class ExtractionResult {
+
+    // the blob images
+    private ArrayList<BufferedImage> blobs = null;
+    // the engine picked
+    private EngineSelection selection = null;
+
+    /*
+     * constructor which creates a result
+     */
+    public ExtractionResult(ArrayList<BufferedImage> blobs, EngineSelection selection) {
+        this.blobs = blobs;
+        this.selection = selection;
+    }
+
+    /*
+     * method to get the blob images
+     */
+    public ArrayList<BufferedImage> getBlobs() {
+        return blobs;
+    }
+
+    /*
+     * method to get the engine picked, with the reason it was picked
+     */
+    public EngineSelection getSelection() {
+        return selection;
+    }
+}
@@ -0,0 +1,71 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the service provider interface of a blob extraction engine
+ *
+ * an engine creates the extractors of one labeling algorithm and estimates
+ * how long they take on an image of a profile, by which the auto mode of the
+ * engine registry picks the fastest engine for every image
+ *
+ * the engines are found by java.util.ServiceLoader : an engine class has a
+ * public no argument constructor and is listed in the
+ * META-INF/services/com.deepak.blobextractor.engine.ExtractorEngine file of
+ * its jar. the built in engines are listed in the one of this project
+ */
+public interface ExtractorEngine {
+
+    /*
+     * method to get the name of the engine, by which it is picked
+     */
+    public String getName();
+
+    /*
+     * method to get a one line description of the engine
+     */
+    public String getDescription();
+
+    /*
+     * method to estimate the time the engine takes to extract the blobs of an
+     * image of the specified profile in nano seconds
+     *
+     * Double.POSITIVE_INFINITY if the engine can not extract such an image or
+     * should never be picked for it
+     */
+    public double estimateCost(ImageProfile profile);
+
+    /*
+     * method to create a new extractor of the engine
+     */
+    public ImageBlobExtractor createExtractor();
+}
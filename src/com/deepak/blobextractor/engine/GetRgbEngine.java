@@ -0,0 +1,62 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.BlobExtractor;
+import com.deepak.blobextractor.ImageBlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the original kernel extractor (com.deepak.blobextractor.BlobExtractor)
+ *
+ * as the optimized kernel extractor (see Level1Engine) but it reads and
+ * writes every pixel through the image, about six times slower
+ */
+public class GetRgbEngine implements ExtractorEngine {
+
+    // the cost relative to the optimized kernel extractor
+    private static final double RELATIVE_COST = 6;
+
+    public String getName() {
+        return "getrgb";
+    }
+
+    public String getDescription() {
+        return "3x3 kernel labeling through BufferedImage getRGB and setRGB";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        return RELATIVE_COST * profile.getPixelCount()
+                * (Level1Engine.PIXEL_COST + Level1Engine.PIXEL_RUN_COST * profile.getRunsPerRow());
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        return new BlobExtractor();
+    }
+}
@@ -0,0 +1,177 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.PackedBinaryImage;
+import java.awt.image.BufferedImage;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the profile of an image by which the engine to extract its blobs is picked
+ *
+ * the profile is sampled cheaply from a few evenly spaced rows of the image :
+ * the resolution, the foreground (blob pixel) density and the no of runs of
+ * blob pixels per row. the run count is what the labeling cost of every
+ * engine mostly depends on besides the no of pixels
+ */
+public class ImageProfile {
+
+    // the maximum no of rows sampled
+    public static final int MAXIMUM_SAMPLED_ROWS = 64;
+    // the image resolution
+    private int width = 0;
+    private int height = 0;
+    // the no of rows sampled
+    private int sampledRows = 0;
+    // the fraction of the sampled pixels which are blob pixels
+    private double foregroundDensity = 0;
+    // the mean no of runs of blob pixels per sampled row
+    private double runsPerRow = 0;
+
+    /*
+     * constructor which creates a profile of the specified values
+     */
+    public ImageProfile(int width, int height, double foregroundDensity, double runsPerRow) {
+        this(width, height, height, foregroundDensity, runsPerRow);
+    }
+
+    /*
+     * constructor which creates a profile of the specified values
+     */
+    private ImageProfile(int width, int height, int sampledRows, double foregroundDensity, double runsPerRow) {
+        this.width = width;
+        this.height = height;
+        this.sampledRows = sampledRows;
+        this.foregroundDensity = foregroundDensity;
+        this.runsPerRow = runsPerRow;
+    }
+
+    /*
+     * method to sample the profile of an image
+     *
+     * at most MAXIMUM_SAMPLED_ROWS rows are read. the packed raster of a
+     * TYPE_BYTE_BINARY image is read directly, a whole byte of background at
+     * a time; any other image is read a row at a time by getRGB
+     */
+    public static ImageProfile sample(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int rows = Math.min(h, MAXIMUM_SAMPLED_ROWS);
+        // the packed view of a binary image is not a copy
+        PackedBinaryImage packedImage = img.getType() == BufferedImage.TYPE_BYTE_BINARY
+                ? new PackedBinaryImage(img) : null;
+        int row[] = packedImage == null ? new int[w] : null;
+        long foregroundCount = 0;
+        long runCount = 0;
+        for (int i = 0; i < rows; i++) {
+            // the rows are evenly spaced over the image
+            int y = (int) ((2L * i + 1) * h / (2L * rows));
+            if (packedImage != null) {
+                int x = packedImage.nextBlobPixel(0, y);
+                while (x < w) {
+                    int end = packedImage.nextBackgroundPixel(x, y);
+                    foregroundCount += end - x;
+                    runCount++;
+                    x = end < w ? packedImage.nextBlobPixel(end, y) : w;
+                }
+            } else {
+                img.getRGB(0, y, w, 1, row, 0, w);
+                boolean inRun = false;
+                for (int x = 0; x < w; x++) {
+                    boolean blobPixel = row[x] == PackedBinaryImage.BLOBCOLOR;
+                    if (blobPixel) {
+                        foregroundCount++;
+                        if (!inRun) {
+                            runCount++;
+                        }
+                    }
+                    inRun = blobPixel;
+                }
+            }
+        }
+        return new ImageProfile(w, h, rows, (double) foregroundCount / ((long) rows * w), (double) runCount / rows);
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /*
+     * method to get the no of pixels of the image
+     */
+    public long getPixelCount() {
+        return (long) width * height;
+    }
+
+    /*
+     * method to get the no of rows sampled
+     */
+    public int getSampledRows() {
+        return sampledRows;
+    }
+
+    /*
+     * method to get the fraction of the pixels which are blob pixels
+     */
+    public double getForegroundDensity() {
+        return foregroundDensity;
+    }
+
+    /*
+     * method to get the mean no of runs of blob pixels per row
+     */
+    public double getRunsPerRow() {
+        return runsPerRow;
+    }
+
+    /*
+     * method to get the estimated no of runs of blob pixels of the whole image
+     */
+    public double getRunCount() {
+        return runsPerRow * height;
+    }
+
+    /*
+     * method to get a summary of the profile
+     */
+    public String toString() {
+        return String.format("%dx%d, density %.1f%%, %.1f runs per row", width, height,
+                foregroundDensity * 100, runsPerRow);
+    }
+}
@@ -0,0 +1,66 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.arrayprocessing.optimized.level1.BlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the optimized kernel extractor
+ * (arrayprocessing.optimized.level1.BlobExtractor)
+ *
+ * a kernel extractor passes over the whole image until no label changes and
+ * relabels the whole image on every label merge, so its cost grows with the
+ * no of pixels times the no of runs. kept for comparison, it is never the
+ * fastest engine
+ */
+public class Level1Engine implements ExtractorEngine {
+
+    // the cost per pixel, and per pixel and run per row, in nano seconds
+    // measured on the synthetic workloads (workload.WorkloadGenerator)
+    static final double PIXEL_COST = 100;
+    static final double PIXEL_RUN_COST = 40;
+
+    public String getName() {
+        return "level1";
+    }
+
+    public String getDescription() {
+        return "3x3 kernel labeling over the pixel array, skipping the uniform kernels";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        return profile.getPixelCount() * (PIXEL_COST + PIXEL_RUN_COST * profile.getRunsPerRow());
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        return new BlobExtractor();
+    }
+}
@@ -0,0 +1,63 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the two pass union-find extractor
+ * (arrayprocessing.optimized.level2.BlobExtractor) on a single thread
+ *
+ * it labels every pixel into a label buffer, so its cost is mostly per pixel
+ */
+public class Level2Engine implements ExtractorEngine {
+
+    // the cost per pixel and per run in nano seconds
+    // measured on the synthetic workloads (workload.WorkloadGenerator)
+    static final double PIXEL_COST = 4;
+    static final double RUN_COST = 60;
+
+    public String getName() {
+        return "level2";
+    }
+
+    public String getDescription() {
+        return "two pass pixel labeling with union-find, sequential";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        return PIXEL_COST * profile.getPixelCount() + RUN_COST * profile.getRunCount();
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        return new BlobExtractor();
+    }
+}
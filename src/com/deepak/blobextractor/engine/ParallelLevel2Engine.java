@@ -0,0 +1,74 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the two pass union-find extractor
+ * (arrayprocessing.optimized.level2.BlobExtractor) labeling the strips of the
+ * image on all the processors
+ *
+ * the strips are at least 64 rows high and every thread costs its start up,
+ * so it pays only for the large images on a machine of many processors
+ */
+public class ParallelLevel2Engine implements ExtractorEngine {
+
+    // the minimum no of rows of a strip, as in the extractor
+    private static final int MINIMUM_STRIP_ROWS = 64;
+    // the cost of handing a strip to a thread in nano seconds
+    private static final double THREAD_COST = 20000;
+
+    public String getName() {
+        return "level2parallel";
+    }
+
+    public String getDescription() {
+        return "two pass pixel labeling with union-find, strips labeled in parallel";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                profile.getHeight() / MINIMUM_STRIP_ROWS);
+        if (threads < 2) {
+            // the same as the sequential engine
+            return Double.POSITIVE_INFINITY;
+        }
+        return (Level2Engine.PIXEL_COST * profile.getPixelCount()
+                + Level2Engine.RUN_COST * profile.getRunCount()) / threads + THREAD_COST * threads;
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        BlobExtractor extractor = new BlobExtractor();
+        extractor.setParallelism(Runtime.getRuntime().availableProcessors());
+        return extractor;
+    }
+}
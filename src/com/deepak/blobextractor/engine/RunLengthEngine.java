@@ -0,0 +1,64 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.engine;
+
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.runlength.BlobExtractor;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the engine of the run length extractor (runlength.BlobExtractor)
+ *
+ * it skips the background a byte at a time and labels whole runs, so its
+ * cost is mostly per run; the fastest engine on a single thread for every
+ * workload but the densest noise and checkerboards
+ */
+public class RunLengthEngine implements ExtractorEngine {
+
+    // the cost per pixel and per run in nano seconds
+    // measured on the synthetic workloads (workload.WorkloadGenerator)
+    private static final double PIXEL_COST = 0.7;
+    private static final double RUN_COST = 60;
+
+    public String getName() {
+        return "runlength";
+    }
+
+    public String getDescription() {
+        return "run length labeling with union-find, sequential";
+    }
+
+    public double estimateCost(ImageProfile profile) {
+        return PIXEL_COST * profile.getPixelCount() + RUN_COST * profile.getRunCount();
+    }
+
+    public ImageBlobExtractor createExtractor() {
+        return new BlobExtractor();
+    }
+}
@@ -16,41 +16,354 @@ along with Blob Extractor.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.deepak.blobextractor.main;
 
-import com.deepak.blobextractor.arrayprocessing.optimized.level1.BlobExtractor;
-import java.awt.image.BufferedImage;
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobFilter;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ThresholdPolicy;
+import com.deepak.blobextractor.archive.ArchiveBlobSink;
+import com.deepak.blobextractor.batch.BatchExtractor;
+import com.deepak.blobextractor.batch.BatchStatistics;
+import com.deepak.blobextractor.batch.BlobSink;
+import com.deepak.blobextractor.batch.FileImageSource;
+import com.deepak.blobextractor.batch.ImageFileBlobSink;
+import com.deepak.blobextractor.batch.ImageSource;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import javax.imageio.ImageIO;
 
 /**
  *
  * @author deepak
  */
+
+/*
+ * the command line front end of the blob extractor
+ *
+ * usage : java -jar BlobExtractor.jar [options] input...
+ *
+ * an input is an image file, a directory (all the image files in it) or a
+ * glob in its last path element (like scans/*.bmp). the images are decoded,
+ * labeled and written in parallel by the batch extractor, every blob as an
+ * image file named after its source image in the output directory, or all
+ * the blobs of an image as a single blob archive
+ *
+ * the size and modified time of every input written are recorded in a
+ * manifest in the output directory, and the inputs not changed since are
+ * skipped by the next run unless --force is given
+ */
 public class Main {
 
+    // the manifest of the inputs written, in the output directory
+    private static final String MANIFEST_NAME = ".blobextractor.manifest";
+    // the metrics receiver of the --jfr option
+    private static final String JFR_METRICS_CLASS = "com.deepak.blobextractor.jfr.JfrExtractionMetrics";
+    // the usage message
+    private static final String USAGE = "usage : java -jar BlobExtractor.jar [options] input...\n"
+            + "  input                an image file, a directory or a glob (like scans/*.bmp)\n"
+            + "  -o <directory>       the output directory (default blobs)\n"
+            + "  -t <threads>         the no of labeling threads (default the no of processors)\n"
+            + "  -io <threads>        the no of decoding and encoding threads (default 2 x labeling threads)\n"
+            + "  -f <format>          the output image format (default png), or blobs for a\n"
+            + "                       single blob archive per image\n"
+            + "  --min-area <n>       --max-area <n>      the blob pixel count range\n"
+            + "  --min-width <n>      --max-width <n>     the blob width range\n"
+            + "  --min-height <n>     --max-height <n>    the blob height range\n"
+            + "  --min-aspect <r>     --max-aspect <r>    the blob width / height range\n"
+            + "  --threshold <t>      label gray and color images too, thresholded at a gray\n"
+            + "                       level (0 to 256), by otsu or by adaptive:<block>:<offset>\n"
+            + "  --reject-border      skip the blobs touching the image border\n"
+            + "  --jfr                emit flight recorder events of the extractions (needs a\n"
+            + "                       build on java 8u272 or 11 and a running recording)\n"
+            + "  --force              process the inputs not changed since the last run too";
+
     /**
      * @param args the command line arguments
      */
-    public static void main(String[] args) throws IOException {
-        // create an object of the BlobExtractor
-        BlobExtractor be = new BlobExtractor();
-        // read the input image
-        BufferedImage img = ImageIO.read(new File("D:\\blob test\\blob test image.bmp"));
-        // create an arrayList of blob images and get all blobs extracted using the BlobExtractor object
-        ArrayList<BufferedImage> blobs = be.extractBlobs(img);
-
-        // if blobs are present then save it to the same directory in which the sorce image is present
-        if (blobs != null && blobs.size() > 0) {
-            // blob counter
-            int i = 0;
-            // for all blobs
-            for (BufferedImage blob : blobs) {
-                // write the blob images to a file
-                ImageIO.write(blob, "PNG", new File("D:\\blob test\\a\\blob" + i + ".png"));
-                // increment blob counter
-                i++;
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // the options
+        File outputDirectory = new File("blobs");
+        String format = "png";
+        boolean force = false;
+        BatchExtractor batchExtractor = new BatchExtractor();
+        BlobFilter blobFilter = new BlobFilter();
+        long minArea = 0, maxArea = Long.MAX_VALUE;
+        int minWidth = 0, maxWidth = Integer.MAX_VALUE;
+        int minHeight = 0, maxHeight = Integer.MAX_VALUE;
+        double minAspect = 0, maxAspect = Double.POSITIVE_INFINITY;
+        List<String> inputs = new ArrayList<String>();
+
+        // parse the command line arguments
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("-o")) {
+                    outputDirectory = new File(value(args, ++i));
+                } else if (arg.equals("-t")) {
+                    batchExtractor.setLabelThreads(Integer.parseInt(value(args, ++i)));
+                } else if (arg.equals("-io")) {
+                    batchExtractor.setIoThreads(Integer.parseInt(value(args, ++i)));
+                } else if (arg.equals("-f")) {
+                    format = value(args, ++i).toLowerCase();
+                } else if (arg.equals("--min-area")) {
+                    minArea = Long.parseLong(value(args, ++i));
+                } else if (arg.equals("--max-area")) {
+                    maxArea = Long.parseLong(value(args, ++i));
+                } else if (arg.equals("--min-width")) {
+                    minWidth = Integer.parseInt(value(args, ++i));
+                } else if (arg.equals("--max-width")) {
+                    maxWidth = Integer.parseInt(value(args, ++i));
+                } else if (arg.equals("--min-height")) {
+                    minHeight = Integer.parseInt(value(args, ++i));
+                } else if (arg.equals("--max-height")) {
+                    maxHeight = Integer.parseInt(value(args, ++i));
+                } else if (arg.equals("--min-aspect")) {
+                    minAspect = Double.parseDouble(value(args, ++i));
+                } else if (arg.equals("--max-aspect")) {
+                    maxAspect = Double.parseDouble(value(args, ++i));
+                } else if (arg.equals("--threshold")) {
+                    batchExtractor.setThresholdPolicy(parseThresholdPolicy(value(args, ++i)));
+                } else if (arg.equals("--reject-border")) {
+                    blobFilter.setRejectBorderBlobs(true);
+                } else if (arg.equals("--jfr")) {
+                    batchExtractor.setMetrics(createJfrMetrics());
+                } else if (arg.equals("--force")) {
+                    force = true;
+                } else if (arg.startsWith("-")) {
+                    throw new IllegalArgumentException("unknown option " + arg);
+                } else {
+                    inputs.add(arg);
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("no input given");
+            }
+            if (!format.equals(ArchiveBlobSink.EXTENSION) && !ImageIO.getImageWritersByFormatName(format).hasNext()) {
+                throw new IllegalArgumentException("no image writer found for " + format);
+            }
+            blobFilter.setAreaRange(minArea, maxArea);
+            blobFilter.setWidthRange(minWidth, maxWidth);
+            blobFilter.setHeightRange(minHeight, maxHeight);
+            blobFilter.setAspectRatioRange(minAspect, maxAspect);
+        } catch (IllegalArgumentException e) {
+            // a NumberFormatException is an IllegalArgumentException too
+            System.out.println("Error : " + e.getMessage());
+            System.out.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        // the blob filter is set only if any filter option is given
+        if (minArea > 0 || maxArea < Long.MAX_VALUE || minWidth > 0 || maxWidth < Integer.MAX_VALUE
+                || minHeight > 0 || maxHeight < Integer.MAX_VALUE || minAspect > 0
+                || maxAspect < Double.POSITIVE_INFINITY || Arrays.asList(args).contains("--reject-border")) {
+            batchExtractor.setBlobFilter(blobFilter);
+        }
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            System.out.println("Error : could not create the output directory " + outputDirectory);
+            System.exit(1);
+            return;
+        }
+
+        // find the input files and skip the ones not changed since the last run
+        File manifestFile = new File(outputDirectory, MANIFEST_NAME);
+        Properties manifest = loadManifest(manifestFile);
+        final Map<String, File> files = new HashMap<String, File>();
+        List<ImageSource> sources = new ArrayList<ImageSource>();
+        long inputBytes = 0;
+        int skipped = 0;
+        for (File file : findInputFiles(inputs)) {
+            if (!force && getFileStamp(file).equals(manifest.getProperty(file.getAbsolutePath()))) {
+                skipped++;
+                continue;
+            }
+            FileImageSource source = new FileImageSource(file);
+            // the blob files are named after the image, so the names should be unique
+            if (files.containsKey(source.getName())) {
+                System.out.println("Error : " + file + " skipped, an image named "
+                        + source.getName() + " is already in the batch.");
+                continue;
+            }
+            files.put(source.getName(), file);
+            sources.add(source);
+            inputBytes += file.length();
+        }
+        System.out.println("Images : " + sources.size() + " (" + skipped + " unchanged skipped)");
+
+        // extract the blobs of all the images
+        // the inputs written are recorded in the manifest
+        final BlobSink fileSink = format.equals(ArchiveBlobSink.EXTENSION)
+                ? new ArchiveBlobSink(outputDirectory) : new ImageFileBlobSink(outputDirectory, format);
+        final Set<String> written = Collections.synchronizedSet(new HashSet<String>());
+        BatchStatistics statistics = batchExtractor.extract(sources, new BlobSink() {
+
+            public void blobsExtracted(String name, ArrayList<Blob> blobs) throws IOException {
+                fileSink.blobsExtracted(name, blobs);
+                written.add(name);
+            }
+        });
+        for (String name : written) {
+            File file = files.get(name);
+            manifest.setProperty(file.getAbsolutePath(), getFileStamp(file));
+        }
+        saveManifest(manifest, manifestFile);
+
+        // print the failures and the summary of the run
+        for (String failure : statistics.getFailures()) {
+            System.out.println("Error : " + failure);
+        }
+        double seconds = Math.max(1, statistics.getElapsedNanos()) / 1e9;
+        System.out.print(statistics);
+        System.out.println(String.format("Throughput : %.1f images/s, %.1f blobs/s, %.2f MB/s",
+                statistics.getImageCount() / seconds, statistics.getBlobCount() / seconds,
+                inputBytes / 1e6 / seconds));
+    }
+
+    /*
+     * method to get the value of an option
+     */
+    private static String value(String args[], int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("missing value of " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /*
+     * method to get the threshold policy of the --threshold option
+     */
+    private static ThresholdPolicy parseThresholdPolicy(String value) {
+        if (value.equalsIgnoreCase("otsu")) {
+            return ThresholdPolicy.otsu();
+        }
+        if (value.toLowerCase().startsWith("adaptive")) {
+            String parts[] = value.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("adaptive threshold should be adaptive:<block>:<offset>");
             }
+            return ThresholdPolicy.adaptive(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        }
+        return ThresholdPolicy.fixed(Integer.parseInt(value));
+    }
+
+    /*
+     * method to create the flight recorder metrics receiver of the --jfr option
+     *
+     * it is loaded by name as it is compiled into the project only when the
+     * JDK building it has the flight recorder API
+     */
+    private static ExtractionMetrics createJfrMetrics() {
+        try {
+            return (ExtractionMetrics) Class.forName(JFR_METRICS_CLASS).getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("flight recorder events are not in this build");
+        } catch (LinkageError e) {
+            throw new IllegalArgumentException("flight recorder is not supported by this java");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("could not create the flight recorder events : " + e);
+        }
+    }
+
+    /*
+     * method to find the image files of the inputs
+     *
+     * a directory gives all the files in it with an image file extension known
+     * to ImageIO, a glob gives the files in its directory matching it
+     */
+    private static List<File> findInputFiles(List<String> inputs) throws IOException {
+        List<File> files = new ArrayList<File>();
+        Set<String> suffixes = new HashSet<String>();
+        for (String suffix : ImageIO.getReaderFileSuffixes()) {
+            suffixes.add(suffix.toLowerCase());
+        }
+        for (String input : inputs) {
+            File file = new File(input);
+            if (file.isFile()) {
+                files.add(file);
+            } else if (file.isDirectory()) {
+                File children[] = file.listFiles();
+                Arrays.sort(children);
+                for (File child : children) {
+                    String name = child.getName();
+                    int dot = name.lastIndexOf('.');
+                    if (child.isFile() && dot > 0 && suffixes.contains(name.substring(dot + 1).toLowerCase())) {
+                        files.add(child);
+                    }
+                }
+            } else if (input.indexOf('*') >= 0 || input.indexOf('?') >= 0 || input.indexOf('[') >= 0 || input.indexOf('{') >= 0) {
+                // the glob is matched against the names of the files in its directory
+                Path glob = Paths.get(input);
+                Path directory = glob.getParent() != null ? glob.getParent() : Paths.get(".");
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob.getFileName());
+                List<File> matches = new ArrayList<File>();
+                DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+                try {
+                    for (Path path : stream) {
+                        if (matcher.matches(path.getFileName()) && Files.isRegularFile(path)) {
+                            matches.add(path.toFile());
+                        }
+                    }
+                } finally {
+                    stream.close();
+                }
+                Collections.sort(matches);
+                files.addAll(matches);
+            } else {
+                System.out.println("Error : input " + input + " not found.");
+            }
+        }
+        return files;
+    }
+
+    /*
+     * method to get the stamp of a file which changes when the file is changed
+     */
+    private static String getFileStamp(File file) {
+        return file.length() + ":" + file.lastModified();
+    }
+
+    /*
+     * method to load the manifest of the inputs written by the last runs
+     */
+    private static Properties loadManifest(File manifestFile) throws IOException {
+        Properties manifest = new Properties();
+        if (manifestFile.isFile()) {
+            InputStream in = new FileInputStream(manifestFile);
+            try {
+                manifest.load(in);
+            } finally {
+                in.close();
+            }
+        }
+        return manifest;
+    }
+
+    /*
+     * method to save the manifest of the inputs written
+     */
+    private static void saveManifest(Properties manifest, File manifestFile) throws IOException {
+        OutputStream out = new FileOutputStream(manifestFile);
+        try {
+            manifest.store(out, "Blob Extractor inputs written");
+        } finally {
+            out.close();
         }
     }
 }
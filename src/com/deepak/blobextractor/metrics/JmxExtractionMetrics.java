@@ -0,0 +1,205 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.metrics;
+
+import com.deepak.blobextractor.ExtractionMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the metrics receiver which sums the metrics of the extractions and exposes
+ * them as a JMX MBean, so they can be read by jconsole or any JMX client
+ *
+ * the counters are atomic, so a single instance can be shared by the
+ * extractors of all the threads. usage :
+ *
+ *   JmxExtractionMetrics metrics = new JmxExtractionMetrics();
+ *   metrics.register("scanner");
+ *   extractor.setMetrics(metrics);
+ */
+public class JmxExtractionMetrics implements ExtractionMetrics, JmxExtractionMetricsMBean {
+
+    // the domain of the object names
+    public static final String DOMAIN = "com.deepak.blobextractor";
+    // the counters
+    private final AtomicLong extractionCount = new AtomicLong();
+    private final AtomicLong pixelCount = new AtomicLong();
+    private final AtomicLong foregroundCount = new AtomicLong();
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(ExtractionMetrics.PHASE_COUNT);
+    private final AtomicLong passCount = new AtomicLong();
+    private final AtomicLong coreProcessingCount = new AtomicLong();
+    private final AtomicLong mergeCount = new AtomicLong();
+    private final AtomicLong blobCount = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    // the last values
+    private volatile int lastPassCount = 0;
+    private volatile int lastBlobCount = 0;
+    // the name the MBean is registered with, null if it is not registered
+    private ObjectName objectName = null;
+
+    /*
+     * method to register the MBean with the platform MBean server under the
+     * name com.deepak.blobextractor:type=ExtractionMetrics,name=<name>
+     */
+    public synchronized void register(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("metrics already registered as " + objectName);
+        }
+        ObjectName newName = new ObjectName(DOMAIN + ":type=ExtractionMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+    }
+
+    /*
+     * method to unregister the MBean from the platform MBean server
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    /*
+     * method to get the name the MBean is registered with, null if it is not registered
+     */
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+
+    public void extractionStarted(String engine, int width, int height) {
+        pixelCount.addAndGet((long) width * height);
+    }
+
+    public void phaseCompleted(int phase, long nanos) {
+        phaseNanos.addAndGet(phase, nanos);
+    }
+
+    public void labelingCompleted(int passCount, long coreProcessingCount, long mergeCount) {
+        this.passCount.addAndGet(passCount);
+        this.coreProcessingCount.addAndGet(coreProcessingCount);
+        this.mergeCount.addAndGet(mergeCount);
+        lastPassCount = passCount;
+    }
+
+    public void labelsMerged(int oldLabel, int newLabel, long pixelCount, long nanos) {
+    }
+
+    public void extractionCompleted(int blobCount, long foregroundCount, long allocatedBytes) {
+        this.blobCount.addAndGet(blobCount);
+        this.foregroundCount.addAndGet(foregroundCount);
+        if (allocatedBytes > 0) {
+            this.allocatedBytes.addAndGet(allocatedBytes);
+        }
+        lastBlobCount = blobCount;
+        extractionCount.incrementAndGet();
+    }
+
+    public long getExtractionCount() {
+        return extractionCount.get();
+    }
+
+    public long getPixelCount() {
+        return pixelCount.get();
+    }
+
+    public long getForegroundCount() {
+        return foregroundCount.get();
+    }
+
+    public long getCopyNanos() {
+        return phaseNanos.get(ExtractionMetrics.COPY);
+    }
+
+    public long getRecolorNanos() {
+        return phaseNanos.get(ExtractionMetrics.RECOLOR);
+    }
+
+    public long getLabelingNanos() {
+        return phaseNanos.get(ExtractionMetrics.LABELING);
+    }
+
+    public long getLabelCollectionNanos() {
+        return phaseNanos.get(ExtractionMetrics.LABEL_COLLECTION);
+    }
+
+    public long getMaterializationNanos() {
+        return phaseNanos.get(ExtractionMetrics.MATERIALIZATION);
+    }
+
+    public long getPassCount() {
+        return passCount.get();
+    }
+
+    public int getLastPassCount() {
+        return lastPassCount;
+    }
+
+    public long getCoreProcessingCount() {
+        return coreProcessingCount.get();
+    }
+
+    public long getMergeCount() {
+        return mergeCount.get();
+    }
+
+    public long getBlobCount() {
+        return blobCount.get();
+    }
+
+    public int getLastBlobCount() {
+        return lastBlobCount;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    public void reset() {
+        extractionCount.set(0);
+        pixelCount.set(0);
+        foregroundCount.set(0);
+        for (int i = 0; i < ExtractionMetrics.PHASE_COUNT; i++) {
+            phaseNanos.set(i, 0);
+        }
+        passCount.set(0);
+        coreProcessingCount.set(0);
+        mergeCount.set(0);
+        blobCount.set(0);
+        allocatedBytes.set(0);
+        lastPassCount = 0;
+        lastBlobCount = 0;
+    }
+}
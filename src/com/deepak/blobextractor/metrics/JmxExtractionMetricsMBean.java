@@ -0,0 +1,120 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.metrics;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the management interface of the extraction metrics exposed by JMX
+ * (see JmxExtractionMetrics)
+ *
+ * the counters are totals over all the extractions since the last reset,
+ * the last values are of the last extraction completed
+ */
+public interface JmxExtractionMetricsMBean {
+
+    /*
+     * method to get the no of extractions completed
+     */
+    public long getExtractionCount();
+
+    /*
+     * method to get the no of pixels of the images extracted
+     */
+    public long getPixelCount();
+
+    /*
+     * method to get the total no of blob (foreground) pixels of the extracted images
+     */
+    public long getForegroundCount();
+
+    /*
+     * method to get the total wall time of the copy phase in nano seconds
+     */
+    public long getCopyNanos();
+
+    /*
+     * method to get the total wall time of the recolor phase in nano seconds
+     */
+    public long getRecolorNanos();
+
+    /*
+     * method to get the total wall time of the labeling phase in nano seconds
+     */
+    public long getLabelingNanos();
+
+    /*
+     * method to get the total wall time of the label collection phase in nano seconds
+     */
+    public long getLabelCollectionNanos();
+
+    /*
+     * method to get the total wall time of the materialization phase in nano seconds
+     */
+    public long getMaterializationNanos();
+
+    /*
+     * method to get the total no of labeling passes
+     */
+    public long getPassCount();
+
+    /*
+     * method to get the no of labeling passes of the last extraction
+     */
+    public int getLastPassCount();
+
+    /*
+     * method to get the total no of pixels processed by the labeling kernel
+     */
+    public long getCoreProcessingCount();
+
+    /*
+     * method to get the total no of label merges
+     */
+    public long getMergeCount();
+
+    /*
+     * method to get the total no of blobs found
+     */
+    public long getBlobCount();
+
+    /*
+     * method to get the no of blobs found by the last extraction
+     */
+    public int getLastBlobCount();
+
+    /*
+     * method to get the total no of bytes allocated by the extractions
+     */
+    public long getAllocatedBytes();
+
+    /*
+     * method to reset all the counters to 0
+     */
+    public void reset();
+}
@@ -0,0 +1,677 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.runlength;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobFilter;
+import com.deepak.blobextractor.BlobSource;
+import com.deepak.blobextractor.BlobStatistics;
+import com.deepak.blobextractor.ExtractionBudget;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ExtractionTimer;
+import com.deepak.blobextractor.ImageBlobExtractor;
+import com.deepak.blobextractor.ImageRegion;
+import com.deepak.blobextractor.BinaryImage;
+import com.deepak.blobextractor.PackedBinaryImage;
+import com.deepak.blobextractor.ThresholdPolicy;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides methods for blob extraction from an binary image
+ *
+ * blob extraction based on run length encoding of the image rows
+ *
+ * every row is converted to runs (horizontal segments of blob pixels) and a
+ * run is labeled by checking its overlap with the runs of the previous row,
+ * two runs of adjacent rows are connected if they overlap or touch diagonally.
+ * overlapping runs with different labels are recorded as equivalent in an
+ * union-find equivalence table, the same way as in the two pass labeling
+ * process of the level2 blob extractor
+ *
+ * there is no per pixel label buffer, the work and the memory needed are
+ * proportional to the no of runs which suits the mostly white document images
+ *
+ * with a threshold policy set a gray or color image is turned into runs
+ * directly while it is read, without a binary copy of the image
+ *
+ * an extraction can be restricted to a region of the image (see ImageRegion),
+ * then only the pixels of the region are read and labeled, so the cost is
+ * proportional to the region and not to the image
+ */
+public class BlobExtractor implements ImageBlobExtractor {
+
+    // the blob colour in image
+    public static final int BLOBCOLOR = Color.black.getRGB();
+    // the background color in image
+    public static final int BACKGROUNDCOLOR = Color.white.getRGB();
+    // the initial size of the run and equivalence tables
+    private static final int INITIAL_TABLE_SIZE = 1024;
+    // the maximum no of elements of a java array
+    private static final long MAXIMUM_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    // the source image resolution
+    private int w = 0;
+    private int h = 0;
+    // the run table
+    // the runs are stored in the scanning order of the image
+    // run i is the pixels runX1[i] to runX2[i] (inclusive) of row runY[i]
+    private int runY[] = null;
+    private int runX1[] = null;
+    private int runX2[] = null;
+    // the label of every run
+    private int runLabel[] = null;
+    // the no of runs
+    private int runCount = 0;
+    // the runs of every blob
+    // the runs of blob label l are blobRuns[blobRunStart[l]] to blobRuns[blobRunStart[l + 1] - 1]
+    // in the scanning order of the image
+    private int blobRuns[] = null;
+    private int blobRunStart[] = null;
+    // the equivalence table
+    // parent[label] holds the parent label of a provisional label
+    // a label which is its own parent is the root of its equivalence class
+    // the root is always the smallest label of the class
+    private int parent[] = null;
+    // the label index
+    // the next provisional label to be assigned
+    private int labelIndex = 1;
+    // the no of blobs (final labels) found
+    private int blobCount = 0;
+    // the statistics of the blobs found
+    private BlobStatistics blobStatistics = null;
+    // the filter of the blobs to be kept, null for all blobs
+    private BlobFilter blobFilter = null;
+    // the threshold policy for the gray and color images, null for binary images only
+    private ThresholdPolicy thresholdPolicy = null;
+    // the no of unions of two different classes of the equivalence table
+    private int mergeCount = 0;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the timer of the phases of the last extraction
+    private ExtractionTimer timer = null;
+    // the budget of the current extraction, null if none
+    private ExtractionBudget budget = null;
+
+    /*
+     * method to extract all blob images from an image
+     * has the source image as parameter and outputs an arraylist of
+     * detected blob images
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage) {
+        return extractImages(sourceImage, null);
+    }
+
+    /*
+     * method to extract the blob images of a region of an image
+     * has the source image and the region as parameters and outputs an
+     * arraylist of the blob images, or null if the image or the region
+     * is not valid
+     *
+     * the blobs are clipped to the region, a blob crossing the region border
+     * has only its pixels in the region
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ImageRegion region) {
+        if (!isValidRegion(sourceImage, region)) {
+            return null;
+        }
+        return extractImages(sourceImage, region);
+    }
+
+    /*
+     * method to extract the blob images of an image, or of a region of it
+     * if the region is not null
+     */
+    private ArrayList<BufferedImage> extractImages(BufferedImage sourceImage, ImageRegion region) {
+
+        // create a blob image list
+        ArrayList<BufferedImage> blobList = null;
+
+        // get the blob handles and draw the image of every blob
+        ArrayList<Blob> blobs = extractHandles(sourceImage, region);
+        if (blobs != null) {
+            blobList = new ArrayList<BufferedImage>(blobs.size());
+            for (Blob blob : blobs) {
+                blobList.add(blob.getImage());
+            }
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), blobStatistics);
+        }
+        // return the blob list
+        return blobList;
+    }
+
+    /*
+     * method to extract all blob images from an image within a budget
+     * has the source image and the budget (null for none) as parameters and
+     * outputs an arraylist of detected blob images
+     *
+     * the budget is checked after every row of the run labeling, an
+     * ExtractionAbortedException is thrown when it is cancelled or runs out
+     */
+    public ArrayList<BufferedImage> extractBlobs(BufferedImage sourceImage, ExtractionBudget budget) {
+        this.budget = budget;
+        try {
+            return extractBlobs(sourceImage);
+        } finally {
+            this.budget = null;
+        }
+    }
+
+    /*
+     * method to extract all blobs from an image
+     * has the source image as parameter and outputs an arraylist of
+     * handles of the detected blobs
+     *
+     * a blob handle holds the label, bounding box and pixel count of the blob,
+     * the blob image is drawn from the runs of the blob only when it is asked for
+     */
+    public ArrayList<Blob> extract(BufferedImage sourceImage) {
+        ArrayList<Blob> blobList = extractHandles(sourceImage, null);
+        if (blobList != null) {
+            timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+            timer.extractionCompleted(blobList.size(), blobStatistics);
+        }
+        return blobList;
+    }
+
+    /*
+     * method to extract all blobs of a region of an image
+     * has the source image and the region as parameters and outputs an
+     * arraylist of handles of the detected blobs, or null if the image or
+     * the region is not valid
+     *
+     * the blob cordinates are of the full image, the blobs are clipped to
+     * the region
+     */
+    public ArrayList<Blob> extract(BufferedImage sourceImage, ImageRegion region) {
+        if (!isValidRegion(sourceImage, region)) {
+            return null;
+        }
+        ArrayList<Blob> blobList = extractHandles(sourceImage, region);
+        timer.phaseCompleted(ExtractionMetrics.MATERIALIZATION);
+        timer.extractionCompleted(blobList.size(), blobStatistics);
+        return blobList;
+    }
+
+    /*
+     * method to extract the handles of all blobs from an image, or from a
+     * region of it if the region is not null
+     */
+    private ArrayList<Blob> extractHandles(BufferedImage sourceImage, ImageRegion region) {
+
+        // create a blob list
+        ArrayList<Blob> blobList = null;
+
+        // check whether the image is a valid image
+        // a valid region of an image of any size was checked by the caller
+        if (region != null || isValidImage(sourceImage)) {
+            // start labeling runs
+            labelRegion(sourceImage, region);
+            resolveLabels();
+
+            // initialise the blob array list
+            blobList = new ArrayList<Blob>(blobCount);
+            // the blobs are drawn from the run table of this extraction
+            BlobSource source = new RunTableSource(runY, runX1, runX2, blobRuns, blobRunStart);
+            // for every labeled blob create the blob handle and load it onto the blobs list
+            // the final labels are consecutive from 1 and are in the order
+            // in which the blobs are first met while scanning the image
+            // the blobs rejected by the blob filter are skipped
+            for (int i = 1; i <= blobCount; i++) {
+                if (blobFilter != null && !blobFilter.accept(blobStatistics, i, w, h)) {
+                    continue;
+                }
+                blobList.add(new Blob(i, blobStatistics.getX(i), blobStatistics.getY(i),
+                        blobStatistics.getWidth(i), blobStatistics.getHeight(i), blobStatistics.getArea(i), source));
+            }
+        }
+        // return the blob list
+        return blobList;
+    }
+
+    /*
+     * method to label an image onto a label map
+     * has the source image and the label map as parameters and outputs the
+     * label map, or null if the image is not a valid image
+     *
+     * the label map has the label of every pixel (x, y) at index x + y * width,
+     * 0 for the background and the consecutive blob labels 1 to blob count in
+     * the order in which the blobs are first met while scanning the image.
+     * the statistics of the blobs labeled are given by getBlobStatistics()
+     * and all the blobs are labeled irrespective of the blob filter
+     *
+     * the given label map is used if it has at least width * height elements
+     * so the same array can be reused for every image, else (or if it is null)
+     * a new label map is created
+     */
+    public int[] extractLabels(BufferedImage sourceImage, int labelMap[]) {
+        // check whether the image is a valid image
+        if (!isValidImage(sourceImage)) {
+            return null;
+        }
+        long size = (long) sourceImage.getWidth() * sourceImage.getHeight();
+        if (size > MAXIMUM_ARRAY_SIZE) {
+            throw new IllegalArgumentException("image is too large for an int[] label map");
+        }
+        labelRegion(sourceImage, null);
+        resolveLabels();
+        timer.extractionCompleted(blobCount, blobStatistics);
+
+        // get the label map
+        if (labelMap != null && labelMap.length >= size) {
+            Arrays.fill(labelMap, 0, (int) size, 0);
+        } else {
+            labelMap = new int[(int) size];
+        }
+        // fill the runs with their labels
+        for (int i = 0; i < runCount; i++) {
+            int row = runY[i] * w;
+            Arrays.fill(labelMap, row + runX1[i], row + runX2[i] + 1, runLabel[i]);
+        }
+        // return the label map
+        return labelMap;
+    }
+
+    /*
+     * method to get the statistics of the blobs found by the last extraction
+     *
+     * the statistics are of all the blobs found including the ones rejected by
+     * the blob filter; the blob with label i is the blob handle with label i
+     */
+    public BlobStatistics getBlobStatistics() {
+        return blobStatistics;
+    }
+
+    /*
+     * method to set the filter of the blobs to be kept, null (the default) for all blobs
+     *
+     * the filter is checked before any blob handle or blob image is created
+     */
+    public void setBlobFilter(BlobFilter blobFilter) {
+        this.blobFilter = blobFilter;
+    }
+
+    /*
+     * method to get the filter of the blobs to be kept
+     */
+    public BlobFilter getBlobFilter() {
+        return blobFilter;
+    }
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to set the threshold policy by which the gray and color images
+     * are turned into binary images while they are read
+     *
+     * null (the default) accepts the binary images only
+     */
+    public void setThresholdPolicy(ThresholdPolicy thresholdPolicy) {
+        this.thresholdPolicy = thresholdPolicy;
+    }
+
+    /*
+     * method to get the threshold policy, null if only binary images are accepted
+     */
+    public ThresholdPolicy getThresholdPolicy() {
+        return thresholdPolicy;
+    }
+
+    /*
+     * method to get the binary view of the source image
+     */
+    private BinaryImage getBinaryImage(BufferedImage sourceImage) {
+        if (thresholdPolicy != null) {
+            return thresholdPolicy.apply(sourceImage);
+        }
+        return new PackedBinaryImage(sourceImage);
+    }
+
+    /*
+     * method to check whether the inputed image is a valid image or not
+     */
+    public boolean isValidImage(BufferedImage img) {
+        // the image should not be null
+        if (img == null) {
+            System.out.println("Error : Invalid Image! null image.");
+            return false;
+        } // the image resolution should not be less than 9x9
+        else if (img.getWidth() < 9 || img.getHeight() < 9) {
+            System.out.println("Error : Invalid Image! minimum image resolution should be 9X9.");
+            return false;
+        } // the image should be of type byte binary unless a threshold policy is set
+        else if (thresholdPolicy == null && img.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            System.out.println("Error : Invalid Image! image should be binary image.");
+            return false;
+        }
+        // if all the abouve conditions are satisfied then it is a valid image for blob extraction
+        return true;
+    }
+
+    /*
+     * method to check whether the inputed image and region are valid for
+     * the extraction of the region
+     *
+     * unlike a whole image the image of a region can be of any size
+     */
+    public boolean isValidRegion(BufferedImage img, ImageRegion region) {
+        // the image should not be null
+        if (img == null) {
+            System.out.println("Error : Invalid Image! null image.");
+            return false;
+        } // the region should not be null
+        else if (region == null) {
+            System.out.println("Error : Invalid Region! null region.");
+            return false;
+        } // the image should be of type byte binary unless a threshold policy is set
+        else if (thresholdPolicy == null && img.getType() != BufferedImage.TYPE_BYTE_BINARY) {
+            System.out.println("Error : Invalid Image! image should be binary image.");
+            return false;
+        }
+        // if all the abouve conditions are satisfied then it is a valid region for blob extraction
+        return true;
+    }
+
+    /*
+     * method to label the runs of an image, or of a region of it if the
+     * region is not null
+     *
+     * only the bounding box of the region is viewed as a binary image, a sub
+     * image shares the raster of the image so no pixel out of it is read or
+     * copied
+     */
+    private void labelRegion(BufferedImage sourceImage, ImageRegion region) {
+        w = sourceImage.getWidth();
+        h = sourceImage.getHeight();
+        // time the phases of the extraction
+        // the binary view is timed as the copy, as the threshold policies
+        // of Otsu and of the adaptive threshold read the whole view once more
+        timer = new ExtractionTimer(metrics, "runlength", w, h);
+        region = region != null ? region.clip(w, h) : new ImageRegion(new Rectangle(0, 0, w, h));
+        Rectangle bounds = region.getBounds();
+        BinaryImage packedImage = null;
+        if (bounds.width == w && bounds.height == h) {
+            packedImage = getBinaryImage(sourceImage);
+        } else if (!region.isEmpty()) {
+            packedImage = getBinaryImage(sourceImage.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height));
+        }
+        timer.phaseCompleted(ExtractionMetrics.COPY);
+        labelRuns(packedImage, region, bounds.x, bounds.y);
+    }
+
+    /*
+     * method to convert the rows of a region of the image to runs and label them
+     *
+     * the pixel (x, y) of the image is the pixel (x - dx, y - dy) of the binary
+     * view, the runs are of the image cordinates. a run gets the label of the
+     * first run of the previous row it is connected to and the labels of all
+     * the other connected runs are marked as equivalent
+     */
+    private void labelRuns(BinaryImage packedImage, ImageRegion region, int dx, int dy) {
+        // reset the run and equivalence tables
+        runY = new int[INITIAL_TABLE_SIZE];
+        runX1 = new int[INITIAL_TABLE_SIZE];
+        runX2 = new int[INITIAL_TABLE_SIZE];
+        runLabel = new int[INITIAL_TABLE_SIZE];
+        runCount = 0;
+        parent = new int[INITIAL_TABLE_SIZE];
+        labelIndex = 1;
+        mergeCount = 0;
+
+        if (budget != null) {
+            budget.check(0, 0);
+        }
+
+        // the runs of the previous row are prevStart to prevEnd - 1
+        int prevStart = 0;
+        int prevEnd = 0;
+        // the no of pixels of the region read so far
+        long visitedCount = 0;
+        Rectangle bounds = region.getBounds();
+        for (int y = bounds.y; y < bounds.y + bounds.height; y++) {
+            // the first run of the previous row which may touch the current run
+            int p = prevStart;
+            int rowStart = runCount;
+            // for every span of the region in the row
+            for (int span = region.getSpanStart(y); span < region.getSpanEnd(y); span++) {
+                // the span in the cordinates of the binary view
+                int spanStart = region.getSpanX1(span) - dx;
+                int spanEnd = region.getSpanX2(span) + 1 - dx;
+                visitedCount += spanEnd - spanStart;
+                // for every run of blob pixels in the span
+                int vx = packedImage.nextBlobPixel(spanStart, y - dy, spanEnd);
+                while (vx < spanEnd) {
+                    int vRunEnd = packedImage.nextBackgroundPixel(vx, y - dy, spanEnd);
+                    int x = vx + dx;
+                    int runEnd = vRunEnd + dx;
+                    int run = addRun(y, x, runEnd - 1);
+
+                    // skip the previous row runs which ends before the diagonal
+                    // neighbour of the first pixel of the run
+                    while (p < prevEnd && runX2[p] < x - 1) {
+                        p++;
+                    }
+                    // every previous row run which starts before the diagonal
+                    // neighbour of the last pixel of the run is connected to it
+                    int label = 0;
+                    for (int q = p; q < prevEnd && runX1[q] <= runEnd; q++) {
+                        if (label == 0) {
+                            label = runLabel[q];
+                        } else {
+                            union(label, runLabel[q]);
+                        }
+                    }
+                    // no connected run found, so start a new label
+                    runLabel[run] = label == 0 ? newLabel() : label;
+
+                    // the next run
+                    vx = packedImage.nextBlobPixel(vRunEnd, y - dy, spanEnd);
+                }
+            }
+            prevStart = rowStart;
+            prevEnd = runCount;
+            if (budget != null) {
+                budget.check(visitedCount, mergeCount);
+            }
+        }
+    }
+
+    /*
+     * method to resolve the final labels of the runs
+     *
+     * replaces the provisional label of every run with the final label of its
+     * class, collects the blob statistics and groups the runs by blob
+     */
+    private void resolveLabels() {
+        timer.phaseCompleted(ExtractionMetrics.LABELING);
+        // a single pass over the rows
+        timer.labelingCompleted(1, 0, mergeCount);
+        // flatten the equivalence table
+        // as a parent label is always smaller than its child label
+        // the parent entry is already resolved to the final label when the child is met
+        blobCount = 0;
+        for (int i = 1; i < labelIndex; i++) {
+            if (parent[i] < i) {
+                parent[i] = parent[parent[i]];
+            } else {
+                blobCount++;
+                parent[i] = blobCount;
+            }
+        }
+
+        // relabel the runs with the final labels
+        // count the runs of every blob on the way
+        blobStatistics = new BlobStatistics(blobCount);
+        blobRunStart = new int[blobCount + 2];
+        for (int i = 0; i < runCount; i++) {
+            runLabel[i] = parent[runLabel[i]];
+            blobStatistics.addRun(runLabel[i], runY[i], runX1[i], runX2[i]);
+            blobRunStart[runLabel[i] + 1]++;
+        }
+
+        // group the runs by blob (counting sort)
+        // the runs of a blob stay in the scanning order
+        for (int i = 1; i <= blobCount + 1; i++) {
+            blobRunStart[i] += blobRunStart[i - 1];
+        }
+        int next[] = new int[blobCount + 1];
+        System.arraycopy(blobRunStart, 0, next, 0, blobCount + 1);
+        blobRuns = new int[runCount];
+        for (int i = 0; i < runCount; i++) {
+            blobRuns[next[runLabel[i]]++] = i;
+        }
+        timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
+    }
+
+    /*
+     * method to add a run to the run table
+     *
+     * grows the run table when needed and returns the index of the run
+     */
+    private int addRun(int y, int x1, int x2) {
+        if (runCount == runY.length) {
+            runY = grow(runY);
+            runX1 = grow(runX1);
+            runX2 = grow(runX2);
+            runLabel = grow(runLabel);
+        }
+        runY[runCount] = y;
+        runX1[runCount] = x1;
+        runX2[runCount] = x2;
+        return runCount++;
+    }
+
+    /*
+     * method to double the size of a table
+     */
+    private static int[] grow(int table[]) {
+        int newTable[] = new int[table.length * 2];
+        System.arraycopy(table, 0, newTable, 0, table.length);
+        return newTable;
+    }
+
+    /*
+     * method to get a new provisional label
+     *
+     * grows the equivalence table when needed
+     */
+    private int newLabel() {
+        if (labelIndex == parent.length) {
+            parent = grow(parent);
+        }
+        parent[labelIndex] = labelIndex;
+        return labelIndex++;
+    }
+
+    /*
+     * method to find the root label of the equivalence class of a label
+     *
+     * the path is compressed on the way so later finds are faster
+     */
+    private int find(int label) {
+        while (parent[label] != label) {
+            // point the label to its grand parent (path halving)
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /*
+     * method to mark two labels as equivalent
+     *
+     * the smaller root becomes the root of the merged class
+     */
+    private void union(int label1, int label2) {
+        int root1 = find(label1);
+        int root2 = find(label2);
+        if (root1 < root2) {
+            parent[root2] = root1;
+            mergeCount++;
+        } else if (root2 < root1) {
+            parent[root1] = root2;
+            mergeCount++;
+        }
+    }
+
+    /*
+     * the blob source which draws the blobs from their runs
+     *
+     * it holds the run table of a single extraction, so the blob handles
+     * stay valid after the next extraction
+     */
+    private static class RunTableSource implements BlobSource {
+
+        // the run table
+        private int runY[] = null;
+        private int runX1[] = null;
+        private int runX2[] = null;
+        // the runs of every blob
+        private int blobRuns[] = null;
+        private int blobRunStart[] = null;
+
+        RunTableSource(int runY[], int runX1[], int runX2[], int blobRuns[], int blobRunStart[]) {
+            this.runY = runY;
+            this.runX1 = runX1;
+            this.runX2 = runX2;
+            this.blobRuns = blobRuns;
+            this.blobRunStart = blobRunStart;
+        }
+
+        /*
+         * method to draw the blob from its runs
+         */
+        public void drawBlob(Blob blob, byte bitmap[]) {
+            int label = blob.getLabel();
+            int stride = (blob.getWidth() + 7) / 8;
+            for (int i = blobRunStart[label]; i < blobRunStart[label + 1]; i++) {
+                int run = blobRuns[i];
+                Blob.fillRun(bitmap, (runY[run] - blob.getY()) * stride,
+                        runX1[run] - blob.getX(), runX2[run] - blob.getX());
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.streaming;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides methods for blob extraction from a stream of
+ * binary image rows
+ *
+ * the rows are labeled one at a time by checking the overlap of their runs
+ * (horizontal segments of blob pixels) with the runs of the previous row, the
+ * same way as in the run length blob extractor. only the runs of the previous
+ * row and the runs of the blobs still open are held in memory, so the memory
+ * needed is bounded by the image width and the no of open blobs and not by
+ * the image height
+ *
+ * a blob is complete when none of its runs is in the last row added, as no
+ * later row can touch it; its handle is given to the blob listener at that
+ * point. the blob handle holds the runs of the blob till it is released.
+ * so the blobs are given in the order they are completed and not in the
+ * order they are first met
+ *
+ * usage : either call extractBlobs() with a row source, or call start(),
+ * addRow() for every row and finish() at the end
+ */
+public class BlobExtractor {
+
+    // the listener of the extracted blobs
+    private BlobListener listener = null;
+    // the image width
+    private int w = 0;
+    // the current row no
+    private int y = 0;
+    // the runs of the previous row
+    private int prevX1[] = null;
+    private int prevX2[] = null;
+    private OpenBlob prevBlob[] = null;
+    private int prevCount = 0;
+    // the runs of the current row
+    private int curX1[] = null;
+    private int curX2[] = null;
+    private OpenBlob curBlob[] = null;
+    private int curCount = 0;
+    // the no of blobs still open
+    private int openBlobCount = 0;
+    // the no of blobs completed
+    private int blobCount = 0;
+
+    /*
+     * constructor which creates a streaming blob extractor
+     * which gives the blobs to the specified listener
+     */
+    public BlobExtractor(BlobListener listener) {
+        this.listener = listener;
+    }
+
+    /*
+     * method to extract all blobs from the rows of the specified row source
+     */
+    public void extractBlobs(RowSource source) throws IOException {
+        start(source.getWidth());
+        byte row[] = new byte[(w + 7) / 8];
+        while (source.readRow(row)) {
+            addRow(row);
+        }
+        finish();
+    }
+
+    /*
+     * method to start the extraction of a new image with the specified width
+     */
+    public void start(int width) {
+        w = width;
+        y = 0;
+        // a row has at most (width + 1) / 2 runs
+        int maxRuns = (w + 1) / 2;
+        prevX1 = new int[maxRuns];
+        prevX2 = new int[maxRuns];
+        prevBlob = new OpenBlob[maxRuns];
+        prevCount = 0;
+        curX1 = new int[maxRuns];
+        curX2 = new int[maxRuns];
+        curBlob = new OpenBlob[maxRuns];
+        curCount = 0;
+        openBlobCount = 0;
+        blobCount = 0;
+    }
+
+    /*
+     * method to add the next row of the image
+     *
+     * the row is packed bits with a set bit for a blob pixel (see RowSource)
+     * the blobs completed by this row are given to the listener
+     */
+    public void addRow(byte row[]) {
+        curCount = 0;
+        // the first run of the previous row which may touch the current run
+        int p = 0;
+        // for every run of blob pixels in the row
+        int x = nextPixel(row, 0, 1);
+        while (x < w) {
+            int runEnd = nextPixel(row, x, 0);
+
+            // skip the previous row runs which ends before the diagonal
+            // neighbour of the first pixel of the run
+            while (p < prevCount && prevX2[p] < x - 1) {
+                p++;
+            }
+            // every previous row run which starts before the diagonal
+            // neighbour of the last pixel of the run is connected to it
+            OpenBlob blob = null;
+            for (int q = p; q < prevCount && prevX1[q] <= runEnd; q++) {
+                OpenBlob connected = prevBlob[q].find();
+                if (blob == null) {
+                    blob = connected;
+                } else if (connected != blob) {
+                    blob = OpenBlob.merge(blob, connected);
+                    openBlobCount--;
+                }
+            }
+            // no connected run found, so start a new blob
+            if (blob == null) {
+                blob = new OpenBlob();
+                openBlobCount++;
+            }
+            blob.addRun(y, x, runEnd - 1);
+            curX1[curCount] = x;
+            curX2[curCount] = runEnd - 1;
+            curBlob[curCount] = blob;
+            curCount++;
+
+            // the next run
+            x = nextPixel(row, runEnd, 1);
+        }
+
+        // the blobs of the previous row which do not go on to this row are complete
+        emitBlobs(y);
+
+        // the current row becomes the previous row
+        int tempX[] = prevX1;
+        prevX1 = curX1;
+        curX1 = tempX;
+        tempX = prevX2;
+        prevX2 = curX2;
+        curX2 = tempX;
+        OpenBlob tempBlob[] = prevBlob;
+        prevBlob = curBlob;
+        curBlob = tempBlob;
+        // clear the references to the blobs of the old previous row
+        // up to its own no of runs, before it is replaced by this row's
+        for (int i = 0; i < prevCount; i++) {
+            curBlob[i] = null;
+        }
+        prevCount = curCount;
+        y++;
+    }
+
+    /*
+     * method to finish the extraction of the image
+     *
+     * all the blobs still open are given to the listener
+     */
+    public void finish() {
+        emitBlobs(Integer.MAX_VALUE);
+        // clear the references to the blobs of the last row
+        for (int i = 0; i < prevCount; i++) {
+            prevBlob[i] = null;
+        }
+        prevCount = 0;
+    }
+
+    /*
+     * method to get the no of blobs still open
+     */
+    public int getOpenBlobCount() {
+        return openBlobCount;
+    }
+
+    /*
+     * method to give the blobs of the previous row whose last row is before
+     * the specified row to the listener
+     */
+    private void emitBlobs(int row) {
+        for (int i = 0; i < prevCount; i++) {
+            OpenBlob blob = prevBlob[i].find();
+            if (!blob.emitted && blob.getLastRow() < row) {
+                blob.emitted = true;
+                openBlobCount--;
+                blobCount++;
+                listener.blobExtracted(blob.getBlob(blobCount));
+            }
+        }
+    }
+
+    /*
+     * method to get the x cordinate of the next pixel with the specified bit
+     * value in a packed row starting from x (inclusive)
+     *
+     * the whole bytes with all the 8 pixels of the other value are skipped at once
+     * returns the image width if there is no such pixel in the row
+     */
+    private int nextPixel(byte row[], int x, int bitValue) {
+        byte skipByte = (byte) (bitValue == 1 ? 0x00 : 0xFF);
+        while (x < w) {
+            byte b = row[x >> 3];
+            // skip the whole byte if it is byte aligned and has no pixel of the bit value
+            if ((x & 7) == 0 && b == skipByte) {
+                x += 8;
+                continue;
+            }
+            if (((b >> (7 - (x & 7))) & 1) == bitValue) {
+                return x;
+            }
+            x++;
+        }
+        return w;
+    }
+}
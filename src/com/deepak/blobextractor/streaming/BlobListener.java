@@ -0,0 +1,47 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.streaming;
+
+import com.deepak.blobextractor.Blob;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of a listener which gets the blobs from the streaming
+ * blob extractor as soon as they are complete
+ */
+public interface BlobListener {
+
+    /*
+     * method called for every complete blob
+     *
+     * has the handle of the blob as parameter, its bounding box is in the
+     * source image cordinates and its label is the order in which it is completed
+     */
+    public void blobExtracted(Blob blob);
+}
@@ -0,0 +1,143 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.streaming;
+
+import com.deepak.blobextractor.Blob;
+import com.deepak.blobextractor.BlobSource;
+import java.util.Arrays;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * a blob which is still being extracted by the streaming blob extractor
+ *
+ * holds the runs of the blob found so far; blobs found to be touching are
+ * merged, the blob merged into another one keeps a link (parent) to it so
+ * the runs of the previous row pointing to it can find the merged blob
+ */
+class OpenBlob implements BlobSource {
+
+    // the initial size of the run table
+    private static final int INITIAL_TABLE_SIZE = 4;
+    // the blob into which this blob is merged, or the blob itself
+    private OpenBlob parent = this;
+    // the run table
+    // run i is the pixels runX1[i] to runX2[i] (inclusive) of row runY[i]
+    private int runY[] = new int[INITIAL_TABLE_SIZE];
+    private int runX1[] = new int[INITIAL_TABLE_SIZE];
+    private int runX2[] = new int[INITIAL_TABLE_SIZE];
+    private int runCount = 0;
+    // the bounding box of the blob
+    // the end cordinates are inclusive
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxX = -1;
+    private int maxY = -1;
+    // the pixel count of the blob
+    private long area = 0;
+    // whether the blob is given to the listener
+    boolean emitted = false;
+
+    /*
+     * method to find the blob into which this blob is finally merged
+     *
+     * the path is compressed on the way so later finds are faster
+     */
+    OpenBlob find() {
+        OpenBlob blob = this;
+        while (blob.parent != blob) {
+            blob.parent = blob.parent.parent;
+            blob = blob.parent;
+        }
+        return blob;
+    }
+
+    /*
+     * method to add a run (x1 to x2 inclusive of row y) to the blob
+     */
+    void addRun(int y, int x1, int x2) {
+        if (runCount == runY.length) {
+            runY = Arrays.copyOf(runY, runCount * 2);
+            runX1 = Arrays.copyOf(runX1, runCount * 2);
+            runX2 = Arrays.copyOf(runX2, runCount * 2);
+        }
+        runY[runCount] = y;
+        runX1[runCount] = x1;
+        runX2[runCount] = x2;
+        runCount++;
+        minX = Math.min(minX, x1);
+        maxX = Math.max(maxX, x2);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+        area += x2 - x1 + 1;
+    }
+
+    /*
+     * method to merge two blobs
+     *
+     * the runs of the blob with lesser runs are moved to the other one
+     * returns the merged blob
+     */
+    static OpenBlob merge(OpenBlob blob1, OpenBlob blob2) {
+        OpenBlob target = blob1.runCount >= blob2.runCount ? blob1 : blob2;
+        OpenBlob source = target == blob1 ? blob2 : blob1;
+        for (int i = 0; i < source.runCount; i++) {
+            target.addRun(source.runY[i], source.runX1[i], source.runX2[i]);
+        }
+        // the runs of the merged blob are no longer needed
+        source.runY = null;
+        source.runX1 = null;
+        source.runX2 = null;
+        source.parent = target;
+        return target;
+    }
+
+    /*
+     * method to get the last row of the blob found so far
+     */
+    int getLastRow() {
+        return maxY;
+    }
+
+    /*
+     * method to get the handle of the blob with the specified label
+     */
+    Blob getBlob(int label) {
+        return new Blob(label, minX, minY, maxX - minX + 1, maxY - minY + 1, area, this);
+    }
+
+    /*
+     * method to draw the blob from its runs
+     */
+    public void drawBlob(Blob blob, byte bitmap[]) {
+        int stride = (blob.getWidth() + 7) / 8;
+        for (int i = 0; i < runCount; i++) {
+            Blob.fillRun(bitmap, (runY[i] - minY) * stride, runX1[i] - minX, runX2[i] - minX);
+        }
+    }
+}
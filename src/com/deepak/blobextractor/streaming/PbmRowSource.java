@@ -0,0 +1,124 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.streaming;
+
+import java.io.EOFException;
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the row source which reads the rows of a raw PBM (P4) image from an image input stream
+ *
+ * only the header is parsed on creation, the rows are read one at a time
+ * as they are asked for, so the image is never held in memory as a whole
+ */
+public class PbmRowSource implements RowSource {
+
+    // the input stream
+    private ImageInputStream in = null;
+    // the image resolution
+    private int w = 0;
+    private int h = 0;
+    // the no of rows read
+    private int rowCount = 0;
+
+    /*
+     * constructor which reads the PBM header from the specified stream
+     */
+    public PbmRowSource(ImageInputStream in) throws IOException {
+        this.in = in;
+        // the magic no
+        if (in.read() != 'P' || in.read() != '4') {
+            throw new IOException("Invalid Image! not a raw PBM (P4) image.");
+        }
+        w = readHeaderValue();
+        h = readHeaderValue();
+        // a single white space separates the header from the pixel data
+        // which is already read by readHeaderValue()
+    }
+
+    /*
+     * method to read a decimal value of the header
+     *
+     * skips the white spaces and comments before the value and
+     * reads the single white space after it
+     */
+    private int readHeaderValue() throws IOException {
+        int c = in.read();
+        // skip white spaces and comments
+        while (c == '#' || Character.isWhitespace(c)) {
+            if (c == '#') {
+                while (c != '\n' && c != '\r' && c != -1) {
+                    c = in.read();
+                }
+            }
+            c = in.read();
+        }
+        if (c < '0' || c > '9') {
+            throw new IOException("Invalid Image! bad PBM header.");
+        }
+        int value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            c = in.read();
+        }
+        return value;
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return w;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return h;
+    }
+
+    /*
+     * method to read the next row into the specified array
+     */
+    public boolean readRow(byte row[]) throws IOException {
+        if (rowCount == h) {
+            return false;
+        }
+        try {
+            in.readFully(row, 0, (w + 7) / 8);
+        } catch (EOFException e) {
+            throw new IOException("Invalid Image! PBM image data is truncated.", e);
+        }
+        rowCount++;
+        return true;
+    }
+}
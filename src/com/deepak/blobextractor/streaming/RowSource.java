@@ -0,0 +1,54 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.streaming;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the interface of a source which gives the rows of a binary image one at a time
+ *
+ * a row is given as packed bits, 8 pixels per byte with the left most pixel
+ * in the most significant bit and a set bit for a blob pixel (which is the
+ * same as the raw PBM format)
+ */
+public interface RowSource {
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth();
+
+    /*
+     * method to read the next row into the specified array of (width + 7) / 8 bytes
+     *
+     * returns false if there is no more row
+     */
+    public boolean readRow(byte row[]) throws IOException;
+}
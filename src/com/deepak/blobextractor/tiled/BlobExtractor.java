@@ -0,0 +1,422 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.tiled;
+
+import com.deepak.blobextractor.BlobStatistics;
+import com.deepak.blobextractor.ExtractionMetrics;
+import com.deepak.blobextractor.ExtractionTimer;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which provides methods for blob extraction from a memory mapped
+ * binary image too large to be held in memory
+ *
+ * the image is split into tiles which are copied from the mapped file and
+ * labeled one at a time with the level2 blob extractor. of every labeled tile
+ * only the labels of its border rows and columns and the statistics of its
+ * blobs are kept, so the memory needed for labeling is set by the tile size
+ * and not by the image size
+ *
+ * once all the tiles are labeled the blobs crossing the tile borders are
+ * stitched with an union-find equivalence table of the local labels of all
+ * tiles, checking the touching pixels (8 connected, so also diagonally across
+ * the tile corners) of every pair of neighbouring border rows and columns.
+ * the statistics of the parts of a blob are then joined into the global blob
+ * statistics, which are labeled from 1 in the order in which the blobs are
+ * first met while scanning the image, the same as in the other extractors
+ *
+ * when the parallelism is more than 1 the tiles are labeled on a fork/join
+ * pool, every thread with its own tile image and label map
+ */
+public class BlobExtractor {
+
+    // the default tile size
+    private static final int DEFAULT_TILE_SIZE = 1024;
+    // the minimum tile size
+    // the level2 blob extractor needs at least 9x9 images
+    private static final int MINIMUM_TILE_SIZE = 16;
+    // the tile size
+    private int tileWidth = DEFAULT_TILE_SIZE;
+    private int tileHeight = DEFAULT_TILE_SIZE;
+    // the no of threads used for labeling
+    private int parallelism = 1;
+    // the fork/join pool for the parallel labeling
+    private ForkJoinPool pool = null;
+    // the tiles of the image in row wise order
+    private Tile tiles[] = null;
+    private int tileColumns = 0;
+    private int tileRows = 0;
+    // the stitched equivalence table of the local labels of all tiles
+    private int parent[] = null;
+    // the no of unions of two different classes of the stitched equivalence table
+    private int mergeCount = 0;
+    // the receiver of the metrics of the extractions
+    private ExtractionMetrics metrics = ExtractionMetrics.NONE;
+    // the no of blobs found
+    private int blobCount = 0;
+    // the statistics of the blobs found
+    private BlobStatistics blobStatistics = null;
+
+    /*
+     * method to extract the blobs of a memory mapped image
+     * has the image as parameter and outputs the statistics of all the blobs
+     * found in image cordinates
+     */
+    public BlobStatistics extract(MappedBinaryImage image) {
+        // time the phases of the extraction
+        ExtractionTimer timer = new ExtractionTimer(metrics, "tiled", image.getWidth(), image.getHeight());
+        createTiles(image);
+
+        // label the tiles
+        if (parallelism == 1 || tiles.length == 1) {
+            new TileTask(image, new AtomicInteger()).compute();
+        } else {
+            if (pool == null) {
+                pool = new ForkJoinPool(parallelism);
+            }
+            // every task labels the tiles not yet taken by the other tasks
+            AtomicInteger nextTile = new AtomicInteger();
+            TileTask tasks[] = new TileTask[Math.min(parallelism, tiles.length)];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new TileTask(image, nextTile);
+                pool.execute(tasks[i]);
+            }
+            for (TileTask task : tasks) {
+                task.join();
+            }
+        }
+
+        // stitch the tiles and join the blob statistics
+        stitchTiles(image.getWidth());
+        timer.phaseCompleted(ExtractionMetrics.LABELING);
+        // the two passes of every tile, the merges are of the stitching only
+        timer.labelingCompleted(2, 0, mergeCount);
+        collectStatistics();
+        timer.phaseCompleted(ExtractionMetrics.LABEL_COLLECTION);
+        timer.extractionCompleted(blobCount, blobStatistics);
+        // the tiles are no longer needed
+        tiles = null;
+        parent = null;
+        return blobStatistics;
+    }
+
+    /*
+     * method to set the tile size
+     *
+     * the tile width should be a multiple of 8 so the tiles are copied from
+     * the mapped image a byte at a time
+     */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        if (tileWidth < MINIMUM_TILE_SIZE || tileHeight < MINIMUM_TILE_SIZE) {
+            throw new IllegalArgumentException("tile size should be at least " + MINIMUM_TILE_SIZE);
+        }
+        if (tileWidth % 8 != 0) {
+            throw new IllegalArgumentException("tile width should be a multiple of 8");
+        }
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    /*
+     * method to get the tile width
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /*
+     * method to get the tile height
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /*
+     * method to set the no of threads used for labeling
+     *
+     * 1 (the default) labels the tiles sequentially on the calling thread
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be at least 1");
+        }
+        if (pool != null && pool.getParallelism() != parallelism) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /*
+     * method to get the no of threads used for labeling
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /*
+     * method to set the receiver of the metrics of the extractions,
+     * null for none (the default)
+     *
+     * the tiles are labeled without metrics, the whole image is reported once
+     */
+    public void setMetrics(ExtractionMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ExtractionMetrics.NONE;
+    }
+
+    /*
+     * method to get the receiver of the metrics of the extractions
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /*
+     * method to get the statistics of the blobs found by the last extraction
+     */
+    public BlobStatistics getBlobStatistics() {
+        return blobStatistics;
+    }
+
+    /*
+     * method to split the image into tiles
+     */
+    private void createTiles(MappedBinaryImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        tileColumns = (w + tileWidth - 1) / tileWidth;
+        tileRows = (h + tileHeight - 1) / tileHeight;
+        tiles = new Tile[tileColumns * tileRows];
+        for (int j = 0; j < tileRows; j++) {
+            for (int i = 0; i < tileColumns; i++) {
+                int x = i * tileWidth;
+                int y = j * tileHeight;
+                tiles[j * tileColumns + i] = new Tile(x, y, Math.min(tileWidth, w - x), Math.min(tileHeight, h - y));
+            }
+        }
+    }
+
+    /*
+     * the fork/join task which labels the tiles
+     *
+     * the task takes the next tile to be labeled till all the tiles are taken,
+     * the tile image and the label map are reused for all its tiles
+     */
+    private class TileTask extends RecursiveAction {
+
+        // the version of the serialized form
+        private static final long serialVersionUID = 1L;
+        // the source image
+        private MappedBinaryImage image = null;
+        // the index of the next tile to be labeled, shared by all the tasks
+        private AtomicInteger nextTile = null;
+
+        TileTask(MappedBinaryImage image, AtomicInteger nextTile) {
+            this.image = image;
+            this.nextTile = nextTile;
+        }
+
+        protected void compute() {
+            // the tile image is always of the full tile size, the part beyond
+            // the image is left as background
+            BufferedImage tileImage = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_BYTE_BINARY);
+            int labelMap[] = new int[tileWidth * tileHeight];
+            com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor extractor =
+                    new com.deepak.blobextractor.arrayprocessing.optimized.level2.BlobExtractor();
+            for (int i = nextTile.getAndIncrement(); i < tiles.length; i = nextTile.getAndIncrement()) {
+                Tile tile = tiles[i];
+                image.readTile(tile.x, tile.y, tileImage);
+                extractor.extractLabels(tileImage, labelMap);
+                labelTile(tile, extractor.getBlobStatistics(), labelMap);
+            }
+        }
+    }
+
+    /*
+     * method to keep the border labels and the blob statistics of a labeled tile
+     */
+    private void labelTile(Tile tile, BlobStatistics statistics, int labelMap[]) {
+        tile.blobCount = statistics.getBlobCount();
+        tile.blobStatistics = statistics;
+        tile.top = Arrays.copyOfRange(labelMap, 0, tile.width);
+        tile.bottom = Arrays.copyOfRange(labelMap, (tile.height - 1) * tileWidth, (tile.height - 1) * tileWidth + tile.width);
+        tile.left = new int[tile.height];
+        tile.right = new int[tile.height];
+        for (int y = 0; y < tile.height; y++) {
+            tile.left[y] = labelMap[y * tileWidth];
+            tile.right[y] = labelMap[y * tileWidth + tile.width - 1];
+        }
+    }
+
+    /*
+     * method to stitch the blobs crossing the tile borders
+     *
+     * the local labels of all tiles are placed one after the other in an
+     * equivalence table and the labels of every pair of touching pixels across
+     * a tile border are marked as equivalent
+     */
+    private void stitchTiles(int w) {
+        // place the local labels of the tiles one after the other
+        int labelCount = 0;
+        for (Tile tile : tiles) {
+            tile.labelOffset = labelCount;
+            labelCount += tile.blobCount;
+        }
+        parent = new int[labelCount + 1];
+        mergeCount = 0;
+        for (int i = 1; i <= labelCount; i++) {
+            parent[i] = i;
+        }
+
+        // the top row of a tile against the bottom row of the tiles above it
+        // the north west and north east neighbours may be in the tiles on
+        // either side of the tile above, across the tile corners
+        for (int j = 1; j < tileRows; j++) {
+            for (int i = 0; i < tileColumns; i++) {
+                Tile tile = tiles[j * tileColumns + i];
+                for (int x = 0; x < tile.width; x++) {
+                    if (tile.top[x] == 0) {
+                        continue;
+                    }
+                    int label = tile.labelOffset + tile.top[x];
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int imageX = tile.x + x + dx;
+                        if (imageX < 0 || imageX >= w) {
+                            continue;
+                        }
+                        Tile upper = tiles[(j - 1) * tileColumns + imageX / tileWidth];
+                        int upperLabel = upper.bottom[imageX - upper.x];
+                        if (upperLabel != 0) {
+                            union(label, upper.labelOffset + upperLabel);
+                        }
+                    }
+                }
+            }
+        }
+
+        // the left column of a tile against the right column of the tile
+        // on its left, the neighbours across the tile corners are done above
+        for (int j = 0; j < tileRows; j++) {
+            for (int i = 1; i < tileColumns; i++) {
+                Tile tile = tiles[j * tileColumns + i];
+                Tile leftTile = tiles[j * tileColumns + i - 1];
+                for (int y = 0; y < tile.height; y++) {
+                    if (tile.left[y] == 0) {
+                        continue;
+                    }
+                    int label = tile.labelOffset + tile.left[y];
+                    for (int dy = -1; dy <= 1; dy++) {
+                        if (y + dy >= 0 && y + dy < tile.height && leftTile.right[y + dy] != 0) {
+                            union(label, leftTile.labelOffset + leftTile.right[y + dy]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // flatten the equivalence table
+        // as a parent label is always smaller than its child label
+        // the parent entry is already resolved when the child is met
+        blobCount = 0;
+        for (int i = 1; i <= labelCount; i++) {
+            if (parent[i] < i) {
+                parent[i] = parent[parent[i]];
+            } else {
+                parent[i] = ++blobCount;
+            }
+        }
+    }
+
+    /*
+     * method to find the root label of the equivalence class of a label
+     */
+    private int find(int label) {
+        while (parent[label] != label) {
+            // point the label to its grand parent (path halving)
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /*
+     * method to mark two labels as equivalent
+     *
+     * the smaller root becomes the root of the merged class
+     */
+    private void union(int label1, int label2) {
+        int root1 = find(label1);
+        int root2 = find(label2);
+        if (root1 < root2) {
+            parent[root2] = root1;
+            mergeCount++;
+        } else if (root2 < root1) {
+            parent[root1] = root2;
+            mergeCount++;
+        }
+    }
+
+    /*
+     * method to join the blob statistics of all the tiles
+     *
+     * the stitched labels are in the order of the tiles, so the blobs are
+     * relabeled in the order in which they are first met while scanning the image
+     */
+    private void collectStatistics() {
+        final BlobStatistics stitched = new BlobStatistics(blobCount);
+        for (Tile tile : tiles) {
+            for (int i = 1; i <= tile.blobCount; i++) {
+                stitched.addStatistics(parent[tile.labelOffset + i], tile.blobStatistics, i, tile.x, tile.y);
+            }
+        }
+
+        // sort the blobs by their first pixel
+        Integer order[] = new Integer[blobCount];
+        for (int i = 0; i < blobCount; i++) {
+            order[i] = i + 1;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            public int compare(Integer label1, Integer label2) {
+                int dy = stitched.getFirstY(label1) - stitched.getFirstY(label2);
+                return dy != 0 ? dy : stitched.getFirstX(label1) - stitched.getFirstX(label2);
+            }
+        });
+        blobStatistics = new BlobStatistics(blobCount);
+        for (int i = 0; i < blobCount; i++) {
+            blobStatistics.addStatistics(i + 1, stitched, order[i]);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.tiled;
+
+import com.deepak.blobextractor.streaming.PbmRowSource;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import javax.imageio.stream.FileImageInputStream;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the class which gives a memory mapped view of a bit packed binary image file
+ *
+ * the file is either a raw PBM (P4) image or a raw packed image without any
+ * header, in both the rows are packed 8 pixels a byte (the left most pixel in
+ * the high bit) with every row starting at a new byte, and a set bit is a blob
+ * (black) pixel
+ *
+ * the file is mapped read only and is never read as a whole, the pixels of a
+ * tile are copied to a tile image only when the tile is asked for. the
+ * operating system pages in the parts of the file being read and drops them
+ * when memory is needed, so the image can be larger than the memory
+ */
+public class MappedBinaryImage implements Closeable {
+
+    // the no of bytes of a mapped chunk (a single mapping is limited to 2 GB)
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    // the image resolution
+    private int w = 0;
+    private int h = 0;
+    // the no of bytes of a row
+    private int rowSize = 0;
+    // the mapped chunks of the pixel data
+    private MappedByteBuffer chunks[] = null;
+
+    /*
+     * constructor which maps the pixel data of the specified file,
+     * starting at the specified offset
+     */
+    private MappedBinaryImage(File file, long offset, int w, int h) throws IOException {
+        if (w < 1 || h < 1) {
+            throw new IOException("Invalid Image! bad image resolution.");
+        }
+        this.w = w;
+        this.h = h;
+        rowSize = (w + 7) / 8;
+        long size = (long) rowSize * h;
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            if (randomAccessFile.length() < offset + size) {
+                throw new IOException("Invalid Image! image data is truncated.");
+            }
+            FileChannel channel = randomAccessFile.getChannel();
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start, Math.min(CHUNK_SIZE, size - start));
+            }
+        } finally {
+            // the mappings stay valid after the file is closed
+            randomAccessFile.close();
+        }
+    }
+
+    /*
+     * method to map a raw PBM (P4) image file
+     */
+    public static MappedBinaryImage openPbm(File file) throws IOException {
+        // the header is parsed the same way as by the streaming blob extractor
+        FileImageInputStream in = new FileImageInputStream(file);
+        try {
+            PbmRowSource header = new PbmRowSource(in);
+            return new MappedBinaryImage(file, in.getStreamPosition(), header.getWidth(), header.getHeight());
+        } finally {
+            in.close();
+        }
+    }
+
+    /*
+     * method to map a raw packed image file of the specified resolution
+     */
+    public static MappedBinaryImage openRaw(File file, int w, int h) throws IOException {
+        return new MappedBinaryImage(file, 0, w, h);
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return w;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return h;
+    }
+
+    /*
+     * method to copy the pixels of a tile to a tile image
+     *
+     * the tile starts at (x, y) and has the size of the tile image, which is a
+     * 1 bit TYPE_BYTE_BINARY image with the default palette (0 black, 1 white).
+     * x should be a multiple of 8 so the rows are copied a byte at a time; the
+     * pixels of the tile beyond the image are set to the background
+     */
+    public void readTile(int x, int y, BufferedImage tileImage) {
+        MultiPixelPackedSampleModel sampleModel = (MultiPixelPackedSampleModel) tileImage.getSampleModel();
+        byte data[] = ((DataBufferByte) tileImage.getRaster().getDataBuffer()).getData();
+        int stride = sampleModel.getScanlineStride();
+        // the no of rows and bytes of a row of the tile inside the image
+        int rows = Math.max(0, Math.min(tileImage.getHeight(), h - y));
+        int bytes = Math.max(0, Math.min(stride, rowSize - x / 8));
+        for (int j = 0; j < rows; j++) {
+            long index = (long) (y + j) * rowSize + x / 8;
+            int offset = j * stride;
+            for (int i = 0; i < bytes; i++, index++) {
+                // a set bit is a blob pixel, which is the black (0) palette entry
+                data[offset + i] = (byte) ~chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+            }
+            // the padding bits of the last byte of the row are ignored
+            if (bytes > 0 && x / 8 + bytes == rowSize && (w & 7) != 0) {
+                data[offset + bytes - 1] |= 0xFF >> (w & 7);
+            }
+            Arrays.fill(data, offset + bytes, offset + stride, (byte) 0xFF);
+        }
+        // the rows beyond the image height
+        Arrays.fill(data, rows * stride, tileImage.getHeight() * stride, (byte) 0xFF);
+    }
+
+    /*
+     * method to release the mapped chunks
+     *
+     * the chunks are unmapped when they are garbage collected
+     */
+    public void close() {
+        chunks = null;
+    }
+}
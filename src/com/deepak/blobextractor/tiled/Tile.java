@@ -0,0 +1,71 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.tiled;
+
+import com.deepak.blobextractor.BlobStatistics;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * a tile of the image which is labeled on its own
+ *
+ * only the labels of the border pixels and the statistics of the blobs of
+ * the tile are kept once the tile is labeled; the labels are local to the
+ * tile and are mapped to the image (global) labels when the blobs crossing
+ * the tile borders are stitched
+ */
+class Tile {
+
+    // the origin of the tile in the image
+    int x = 0;
+    int y = 0;
+    // the size of the tile inside the image
+    int width = 0;
+    int height = 0;
+    // the no of blobs (local labels) in the tile
+    int blobCount = 0;
+    // the offset of the local labels in the stitched equivalence table
+    int labelOffset = 0;
+    // the local labels of the top and bottom rows and the left and right columns
+    int top[] = null;
+    int bottom[] = null;
+    int left[] = null;
+    int right[] = null;
+    // the statistics of the blobs in the tile in tile cordinates
+    BlobStatistics blobStatistics = null;
+
+    /*
+     * constructor which creates a tile with the specified origin and size
+     */
+    Tile(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+}
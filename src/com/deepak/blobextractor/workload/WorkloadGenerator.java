@@ -0,0 +1,598 @@
+/* -----------------------------------
+ * Blob Extractor v 0.0.4
+ * -------------------------------------
+ * a java based blob extractor
+ * -------------------------------------
+ * Developed By : deepak pk
+ * Email : deepakpk009@yahoo.in
+ * -------------------------------------
+ * This Project is Licensed under LGPL
+ * -------------------------------------
+ *
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU Lesser General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU Lesser General Public License for more details.
+
+You should have received a copy of the GNU Lesser General Public License
+along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.deepak.blobextractor.workload;
+
+import com.deepak.blobextractor.streaming.RowSource;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * @author deepak
+ */
+
+/*
+ * the generator of reproducible synthetic binary images for performance
+ * testing, black blobs on white
+ *
+ * the same settings and seed always give the same image. the patterns are
+ *  - NOISE        : every pixel is black with the probability of the density
+ *  - BLOBS        : filled discs whose diameters are drawn from the blob
+ *                   size range, placed at random till about the density of
+ *                   the image is black; the border fraction of them are
+ *                   centered on the image border
+ *  - COMB         : bands of 1 pixel wide teeth 2 pixels apart joined at the
+ *                   bottom of the band (the band height is the maximum blob
+ *                   size); every tooth gets a label of its own till the
+ *                   bottom row merges them all
+ *  - SPIRAL       : a single 1 pixel wide square spiral, the longest path a
+ *                   blob of the image can have
+ *  - CHECKERBOARD : a 1 pixel checkerboard, a single blob joined only
+ *                   diagonally which merges labels at every pixel
+ *  - SERPENTINE   : a single 1 pixel wide line going back and forth across
+ *                   the image
+ *  - TEXT         : lines of small glyph like blobs on a white page
+ * the structured patterns (all but NOISE and BLOBS) keep a white 1 pixel
+ * border; the noise reaches the border only if the border fraction is not 0
+ *
+ * the image is generated one row at a time (see openRows()), so a PBM file
+ * of any size, up to gigapixel images, can be written with the memory of a
+ * single row (plus the list of blobs of the BLOBS pattern). the rows can be
+ * given directly to the streaming blob extractor too
+ */
+public class WorkloadGenerator {
+
+    // the patterns
+    public static final int NOISE = 0;
+    public static final int BLOBS = 1;
+    public static final int COMB = 2;
+    public static final int SPIRAL = 3;
+    public static final int CHECKERBOARD = 4;
+    public static final int SERPENTINE = 5;
+    public static final int TEXT = 6;
+    // the names of the patterns, indexed by the pattern
+    private static final String PATTERN_NAMES[] = {"noise", "blobs", "comb", "spiral", "checkerboard", "serpentine", "text"};
+    // the blob size distributions
+    // uniform gives as many large blobs as small ones, log uniform gives
+    // as many blobs in every octave of size, that is mostly small blobs
+    public static final int SIZE_UNIFORM = 0;
+    public static final int SIZE_LOG_UNIFORM = 1;
+    // the height of a text line and of the tallest glyph
+    private static final int TEXT_LINE_HEIGHT = 16;
+    private static final int TEXT_GLYPH_HEIGHT = 11;
+    // the maximum no of bytes of a java array
+    private static final long MAXIMUM_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    // the pattern
+    private int pattern = NOISE;
+    // the image resolution
+    private int w = 0;
+    private int h = 0;
+    // the seed of the random numbers
+    private long seed = 0;
+    // the fraction of the black pixels (NOISE and BLOBS)
+    private double density = 0.1;
+    // the range of the blob diameters (BLOBS) and the comb band height (COMB)
+    private int minBlobSize = 1;
+    private int maxBlobSize = 32;
+    // the distribution of the blob diameters
+    private int blobSizeDistribution = SIZE_UNIFORM;
+    // the fraction of the blobs touching the image border (NOISE and BLOBS)
+    private double borderFraction = 0;
+
+    /*
+     * constructor which creates a generator of the specified pattern and
+     * image resolution, with the seed of its random numbers
+     */
+    public WorkloadGenerator(int pattern, int width, int height, long seed) {
+        if (pattern < NOISE || pattern > TEXT) {
+            throw new IllegalArgumentException("unknown pattern " + pattern);
+        }
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("image width and height should be at least 1");
+        }
+        this.pattern = pattern;
+        this.w = width;
+        this.h = height;
+        this.seed = seed;
+    }
+
+    /*
+     * method to get the pattern of the specified name (like "spiral")
+     */
+    public static int getPattern(String name) {
+        for (int i = 0; i < PATTERN_NAMES.length; i++) {
+            if (PATTERN_NAMES[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unknown pattern " + name);
+    }
+
+    /*
+     * method to set the fraction (0 to 1) of the black pixels of the NOISE
+     * and BLOBS patterns
+     */
+    public void setDensity(double density) {
+        if (!(density >= 0 && density <= 1)) {
+            throw new IllegalArgumentException("density should be from 0 to 1");
+        }
+        this.density = density;
+    }
+
+    /*
+     * method to get the fraction of the black pixels
+     */
+    public double getDensity() {
+        return density;
+    }
+
+    /*
+     * method to set the range of the blob diameters of the BLOBS pattern,
+     * the maximum is the band height of the COMB pattern too
+     */
+    public void setBlobSizeRange(int minBlobSize, int maxBlobSize) {
+        if (minBlobSize < 1 || maxBlobSize < minBlobSize) {
+            throw new IllegalArgumentException("blob size range should be from at least 1 and not empty");
+        }
+        this.minBlobSize = minBlobSize;
+        this.maxBlobSize = maxBlobSize;
+    }
+
+    /*
+     * method to get the minimum blob diameter
+     */
+    public int getMinBlobSize() {
+        return minBlobSize;
+    }
+
+    /*
+     * method to get the maximum blob diameter
+     */
+    public int getMaxBlobSize() {
+        return maxBlobSize;
+    }
+
+    /*
+     * method to set the distribution of the blob diameters
+     * (SIZE_UNIFORM or SIZE_LOG_UNIFORM)
+     */
+    public void setBlobSizeDistribution(int blobSizeDistribution) {
+        if (blobSizeDistribution != SIZE_UNIFORM && blobSizeDistribution != SIZE_LOG_UNIFORM) {
+            throw new IllegalArgumentException("unknown blob size distribution " + blobSizeDistribution);
+        }
+        this.blobSizeDistribution = blobSizeDistribution;
+    }
+
+    /*
+     * method to get the distribution of the blob diameters
+     */
+    public int getBlobSizeDistribution() {
+        return blobSizeDistribution;
+    }
+
+    /*
+     * method to set the fraction (0 to 1) of the blobs touching the image border
+     */
+    public void setBorderFraction(double borderFraction) {
+        if (!(borderFraction >= 0 && borderFraction <= 1)) {
+            throw new IllegalArgumentException("border fraction should be from 0 to 1");
+        }
+        this.borderFraction = borderFraction;
+    }
+
+    /*
+     * method to get the fraction of the blobs touching the image border
+     */
+    public double getBorderFraction() {
+        return borderFraction;
+    }
+
+    /*
+     * method to get the image width
+     */
+    public int getWidth() {
+        return w;
+    }
+
+    /*
+     * method to get the image height
+     */
+    public int getHeight() {
+        return h;
+    }
+
+    /*
+     * method to get a row source which generates the rows of the image from
+     * the top, as packed bits with a set bit for a black pixel (see RowSource)
+     *
+     * every row source gives the same image
+     */
+    public RowSource openRows() {
+        return new WorkloadRows();
+    }
+
+    /*
+     * method to create the image as a TYPE_BYTE_BINARY image
+     *
+     * the image has to fit in a single java array, larger images are to be
+     * written to a PBM file by writePbm()
+     */
+    public BufferedImage createImage() throws IOException {
+        int stride = (w + 7) / 8;
+        if ((long) stride * h > MAXIMUM_ARRAY_SIZE) {
+            throw new IllegalStateException("image too large for a buffered image, write it as PBM");
+        }
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY);
+        byte data[] = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        int scanlineStride = ((MultiPixelPackedSampleModel) img.getSampleModel()).getScanlineStride();
+        RowSource rows = openRows();
+        byte row[] = new byte[stride];
+        for (int y = 0; rows.readRow(row); y++) {
+            // the palette entry 0 of a byte binary image is black
+            for (int i = 0; i < stride; i++) {
+                data[y * scanlineStride + i] = (byte) ~row[i];
+            }
+        }
+        return img;
+    }
+
+    /*
+     * method to write the image to a raw PBM (P4) file, one row at a time
+     */
+    public void writePbm(File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        try {
+            out.write(("P4\n" + w + " " + h + "\n").getBytes("US-ASCII"));
+            RowSource rows = openRows();
+            byte row[] = new byte[(w + 7) / 8];
+            while (rows.readRow(row)) {
+                out.write(row);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /*
+     * method to write the image to a 1 bit BMP file
+     *
+     * the image is created as a whole first, see createImage()
+     */
+    public void writeBmp(File file) throws IOException {
+        if (!ImageIO.write(createImage(), "bmp", file)) {
+            throw new IOException("no BMP image writer found");
+        }
+    }
+
+    /*
+     * method to write the image file of a workload
+     *
+     * usage : WorkloadGenerator pattern width height seed file [density [minSize maxSize [borderFraction]]]
+     * the file is written as BMP if its name ends with .bmp, else as PBM
+     */
+    public static void main(String args[]) throws IOException {
+        if (args.length < 5) {
+            System.out.println("usage : WorkloadGenerator pattern width height seed file [density [minSize maxSize [borderFraction]]]");
+            System.out.println("  pattern : noise, blobs, comb, spiral, checkerboard, serpentine or text");
+            System.exit(1);
+            return;
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(getPattern(args[0]),
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
+        if (args.length > 5) {
+            generator.setDensity(Double.parseDouble(args[5]));
+        }
+        if (args.length > 7) {
+            generator.setBlobSizeRange(Integer.parseInt(args[6]), Integer.parseInt(args[7]));
+        }
+        if (args.length > 8) {
+            generator.setBorderFraction(Double.parseDouble(args[8]));
+        }
+        File file = new File(args[4]);
+        if (file.getName().toLowerCase().endsWith(".bmp")) {
+            generator.writeBmp(file);
+        } else {
+            generator.writePbm(file);
+        }
+    }
+
+    /*
+     * method to get a random blob diameter
+     */
+    private int nextBlobSize(Random random) {
+        if (blobSizeDistribution == SIZE_LOG_UNIFORM) {
+            double logMin = Math.log(minBlobSize);
+            double logMax = Math.log(maxBlobSize + 1);
+            return Math.min(maxBlobSize, (int) Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+        }
+        return minBlobSize + random.nextInt(maxBlobSize - minBlobSize + 1);
+    }
+
+    /*
+     * method to place the discs of the BLOBS pattern
+     *
+     * returns the discs as (center x, center y, radius) sorted by their top row
+     */
+    private int[][] placeDiscs() {
+        Random random = new Random(seed);
+        ArrayList<int[]> discs = new ArrayList<int[]>();
+        // place discs till their total area is the black area wanted
+        // the overlapping discs make the actual density a little less
+        double blackArea = density * w * h;
+        double area = 0;
+        while (area < blackArea) {
+            int r = nextBlobSize(random) / 2;
+            int cx = 0, cy = 0;
+            if (random.nextDouble() < borderFraction) {
+                // center the disc on a random point of the border
+                int side = random.nextInt(4);
+                cx = side == 0 ? 0 : side == 1 ? w - 1 : random.nextInt(w);
+                cy = side == 2 ? 0 : side == 3 ? h - 1 : random.nextInt(h);
+            } else {
+                // keep the disc off the border if it fits
+                cx = w > 2 * r + 2 ? r + 1 + random.nextInt(w - 2 * r - 2) : random.nextInt(w);
+                cy = h > 2 * r + 2 ? r + 1 + random.nextInt(h - 2 * r - 2) : random.nextInt(h);
+            }
+            discs.add(new int[]{cx, cy, r});
+            area += Math.PI * (r + 0.5) * (r + 0.5);
+        }
+        int list[][] = discs.toArray(new int[discs.size()][]);
+        Arrays.sort(list, new Comparator<int[]>() {
+
+            public int compare(int a[], int b[]) {
+                return Integer.compare(a[1] - a[2], b[1] - b[2]);
+            }
+        });
+        return list;
+    }
+
+    /*
+     * method to check whether the pixel at the specified position is on the
+     * spiral with the corners (x1, y1) and (x2, y2)
+     *
+     * the spiral is made of square rings 2 pixels apart, every ring is open
+     * just below its top left corner where it is joined to the next ring
+     */
+    private static boolean isOnSpiral(int x, int y, int x1, int y1, int x2, int y2) {
+        int u = x - x1;
+        int v = y - y1;
+        // the distance of the pixel from the outer side of the spiral
+        int d = Math.min(Math.min(u, v), Math.min(x2 - x, y2 - y));
+        if (d < 0) {
+            return false;
+        }
+        if (d % 2 == 0) {
+            // on a ring, but for the opening of the ring
+            // a ring 1 pixel wide is just its right side, with no opening
+            return !(u == d && v == d + 1 && x1 + d < x2 - d);
+        }
+        // between the rings, but for the joint to the next ring if there is one
+        return u == d && v == d + 1 && x1 + d + 1 <= x2 - d - 1 && y1 + d + 1 <= y2 - d - 1;
+    }
+
+    /*
+     * method to set the bits of the pixels x1 to x2 (inclusive) of a row
+     */
+    private static void setSpan(byte row[], int x1, int x2) {
+        for (int x = x1; x <= x2; x++) {
+            row[x >> 3] |= 0x80 >> (x & 7);
+        }
+    }
+
+    /*
+     * method to clear the bits of the pixels x1 to x2 (inclusive) of a row
+     */
+    private static void clearSpan(byte row[], int x1, int x2) {
+        for (int x = x1; x <= x2; x++) {
+            row[x >> 3] &= ~(0x80 >> (x & 7));
+        }
+    }
+
+    /*
+     * the row source of the image, generating a row at a time
+     */
+    private class WorkloadRows implements RowSource {
+
+        // the next row
+        private int y = 0;
+        // the discs of the BLOBS pattern sorted by their top row
+        private int discs[][] = null;
+        // the next disc not yet reached and the discs crossing the row
+        private int nextDisc = 0;
+        private ArrayList<int[]> activeDiscs = new ArrayList<int[]>();
+        // the glyphs of the current text line as (x, width, height, hole)
+        private ArrayList<int[]> glyphs = new ArrayList<int[]>();
+        private int glyphLine = -1;
+
+        /*
+         * constructor which starts the image from the top row
+         */
+        WorkloadRows() {
+            if (pattern == BLOBS) {
+                discs = placeDiscs();
+            }
+        }
+
+        /*
+         * method to get the image width
+         */
+        public int getWidth() {
+            return w;
+        }
+
+        /*
+         * method to generate the next row
+         */
+        public boolean readRow(byte row[]) {
+            if (y >= h) {
+                return false;
+            }
+            Arrays.fill(row, 0, (w + 7) / 8, (byte) 0);
+            if (pattern == NOISE) {
+                noiseRow(row);
+            } else if (pattern == BLOBS) {
+                discRow(row);
+            } else if (y > 0 && y < h - 1 && w > 2) {
+                // the structured patterns keep a white border
+                if (pattern == COMB) {
+                    combRow(row);
+                } else if (pattern == SPIRAL) {
+                    for (int x = 1; x < w - 1; x++) {
+                        if (isOnSpiral(x, y, 1, 1, w - 2, h - 2)) {
+                            row[x >> 3] |= 0x80 >> (x & 7);
+                        }
+                    }
+                } else if (pattern == CHECKERBOARD) {
+                    for (int x = 1 + (y + 1) % 2; x < w - 1; x += 2) {
+                        row[x >> 3] |= 0x80 >> (x & 7);
+                    }
+                } else if (pattern == SERPENTINE) {
+                    if (y % 2 == 1) {
+                        setSpan(row, 1, w - 2);
+                    } else if (y < h - 2) {
+                        // join the line to the next one at alternate ends
+                        setSpan(row, y % 4 == 2 ? w - 2 : 1, y % 4 == 2 ? w - 2 : 1);
+                    }
+                } else {
+                    textRow(row);
+                }
+            }
+            y++;
+            return true;
+        }
+
+        /*
+         * method to generate a row of the NOISE pattern
+         */
+        private void noiseRow(byte row[]) {
+            // a random sequence of its own for every row
+            Random random = new Random(seed * 31 + y);
+            boolean border = borderFraction > 0;
+            if (!border && (y == 0 || y == h - 1)) {
+                return;
+            }
+            int x1 = border ? 0 : 1;
+            int x2 = border ? w - 1 : w - 2;
+            for (int x = x1; x <= x2; x++) {
+                if (random.nextDouble() < density) {
+                    row[x >> 3] |= 0x80 >> (x & 7);
+                }
+            }
+        }
+
+        /*
+         * method to generate a row of the BLOBS pattern
+         */
+        private void discRow(byte row[]) {
+            // the discs reaching the row
+            while (nextDisc < discs.length && discs[nextDisc][1] - discs[nextDisc][2] <= y) {
+                activeDiscs.add(discs[nextDisc++]);
+            }
+            for (int i = activeDiscs.size() - 1; i >= 0; i--) {
+                int disc[] = activeDiscs.get(i);
+                int dy = y - disc[1];
+                int r = disc[2];
+                if (dy > r) {
+                    // the disc is above the row
+                    activeDiscs.set(i, activeDiscs.get(activeDiscs.size() - 1));
+                    activeDiscs.remove(activeDiscs.size() - 1);
+                    continue;
+                }
+                int dx = (int) Math.sqrt((double) r * r - (double) dy * dy);
+                setSpan(row, Math.max(0, disc[0] - dx), Math.min(w - 1, disc[0] + dx));
+            }
+        }
+
+        /*
+         * method to generate a row of the COMB pattern
+         */
+        private void combRow(byte row[]) {
+            // the bands are maxBlobSize rows high with a white row between them
+            int band = Math.max(2, maxBlobSize);
+            int v = (y - 1) % (band + 1);
+            if (v == band) {
+                return;
+            }
+            if (v == band - 1 || y == h - 2) {
+                // the bottom row of the band joins the teeth
+                setSpan(row, 1, w - 2);
+            } else {
+                for (int x = 1; x < w - 1; x += 2) {
+                    row[x >> 3] |= 0x80 >> (x & 7);
+                }
+            }
+        }
+
+        /*
+         * method to generate a row of the TEXT pattern
+         */
+        private void textRow(byte row[]) {
+            int line = y / TEXT_LINE_HEIGHT;
+            // the glyphs of a line are placed on its first row
+            if (line != glyphLine) {
+                glyphLine = line;
+                glyphs.clear();
+                // a random sequence of its own for every line
+                Random random = new Random(seed * 31 + line);
+                int x = 8;
+                while (x + 10 < w - 8) {
+                    int gw = 4 + random.nextInt(5);
+                    int gh = 7 + random.nextInt(5);
+                    // most of the wider glyphs have a hole
+                    int hole = gw > 4 && random.nextInt(4) != 0 ? 1 : 0;
+                    glyphs.add(new int[]{x, gw, gh, hole});
+                    // a space between the words
+                    x += gw + 2 + (random.nextInt(6) == 0 ? 6 : 0);
+                }
+            }
+            // the glyphs stand on the base line of the line
+            int base = line * TEXT_LINE_HEIGHT + 4 + TEXT_GLYPH_HEIGHT;
+            if (base >= h - 1) {
+                return;
+            }
+            for (int glyph[] : glyphs) {
+                int top = base - glyph[2];
+                if (y < top || y >= base) {
+                    continue;
+                }
+                setSpan(row, glyph[0], glyph[0] + glyph[1] - 1);
+                if (glyph[3] == 1 && y >= top + 2 && y < base - 2) {
+                    clearSpan(row, glyph[0] + 1, glyph[0] + glyph[1] - 2);
+                }
+            }
+        }
+    }
+}